@@ -85,6 +85,7 @@ public final class TAConfig {
     public static ConfigOptionStringList fractureDimList;
     public static ConfigOptionInt fractureLocatorUpdateInterval;
     public static ConfigOptionBoolean fracturesAlwaysTeleport;
+    public static ConfigOptionDouble worldGenTickBudget;
     
     public static ConfigOptionBoolean disableCoremod;
     public static ConfigOptionStringList disabledTransformers;
@@ -99,6 +100,7 @@ public final class TAConfig {
     public static ConfigOptionInt impetusGeneratorBufferSize;
     
     public static ConfigOptionBoolean allowWussRiftSeed;
+    public static ConfigOptionInt terraformerColumnsPerOperation;
     
     public static ConfigOptionFloat cannonBeamDamage;
     public static ConfigOptionLong cannonBeamCostInitial;
@@ -29,6 +29,9 @@ import javax.annotation.Nullable;
 import com.google.common.collect.ImmutableMap;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
 import thecodex6824.thaumicaugmentation.api.impetus.node.IImpetusNode;
 import thecodex6824.thaumicaugmentation.api.util.DimensionalBlockPos;
 
@@ -37,7 +40,14 @@ public final class ImpetusRenderingManager {
     private ImpetusRenderingManager() {}
     
     private static Int2ObjectOpenHashMap<Map<DimensionalBlockPos, IImpetusNode>> nodes = new Int2ObjectOpenHashMap<>();
+    // same nodes as above, but bucketed by chunk so renderers only have to look at what's nearby
+    private static Int2ObjectOpenHashMap<Long2ObjectOpenHashMap<Map<DimensionalBlockPos, IImpetusNode>>> chunks = new Int2ObjectOpenHashMap<>();
     private static final ImmutableMap<DimensionalBlockPos, IImpetusNode> EMPTY = ImmutableMap.of();
+    private static int version = 0;
+    
+    private static long getChunkKey(DimensionalBlockPos pos) {
+        return ChunkPos.asLong(pos.getPos().getX() >> 4, pos.getPos().getZ() >> 4);
+    }
     
     public static void registerRenderableNode(IImpetusNode node) {
         Map<DimensionalBlockPos, IImpetusNode> map = nodes.get(node.getLocation().getDimension());
@@ -46,13 +56,83 @@ public final class ImpetusRenderingManager {
             nodes.put(node.getLocation().getDimension(), map);
         }
         
+        Long2ObjectOpenHashMap<Map<DimensionalBlockPos, IImpetusNode>> dimChunks = chunks.get(node.getLocation().getDimension());
+        if (dimChunks == null) {
+            dimChunks = new Long2ObjectOpenHashMap<>();
+            chunks.put(node.getLocation().getDimension(), dimChunks);
+        }
+        
+        long key = getChunkKey(node.getLocation());
+        Map<DimensionalBlockPos, IImpetusNode> chunk = dimChunks.get(key);
+        if (chunk == null) {
+            chunk = new HashMap<>();
+            dimChunks.put(key, chunk);
+        }
+        
         map.put(node.getLocation(), node);
+        chunk.put(node.getLocation(), node);
+        ++version;
     }
     
     public static boolean deregisterRenderableNode(IImpetusNode node) {
+        Long2ObjectOpenHashMap<Map<DimensionalBlockPos, IImpetusNode>> dimChunks = chunks.get(node.getLocation().getDimension());
+        if (dimChunks != null) {
+            long key = getChunkKey(node.getLocation());
+            Map<DimensionalBlockPos, IImpetusNode> chunk = dimChunks.get(key);
+            if (chunk != null) {
+                chunk.remove(node.getLocation());
+                if (chunk.isEmpty())
+                    dimChunks.remove(key);
+            }
+        }
+        
+        ++version;
         return nodes.getOrDefault(node.getLocation().getDimension(), EMPTY).remove(node.getLocation()) != null;
     }
     
+    /**
+     * Marks the renderable nodes as changed, without any nodes being registered or deregistered.
+     * This should be called when the connections between registered nodes change.
+     */
+    public static void markNodesChanged() {
+        ++version;
+    }
+    
+    /**
+     * Returns a value that changes whenever nodes are registered, deregistered, or marked
+     * as changed. Renderers can use this to know when cached node information is stale.
+     * @return The current version of the renderable nodes
+     */
+    public static int getVersion() {
+        return version;
+    }
+    
+    /**
+     * Adds all renderable nodes in chunks that are (at least partially) within the given horizontal distance of
+     * the given point to the provided collection. Some returned nodes may be slightly farther away than the distance.
+     * @param dim The dimension to look for nodes in
+     * @param x The x coordinate of the center point
+     * @param z The z coordinate of the center point
+     * @param distance The horizontal distance to search
+     * @param dest The collection to add found nodes to
+     */
+    public static void getRenderableNodesInRange(int dim, double x, double z, double distance, Collection<IImpetusNode> dest) {
+        Long2ObjectOpenHashMap<Map<DimensionalBlockPos, IImpetusNode>> dimChunks = chunks.get(dim);
+        if (dimChunks != null && !dimChunks.isEmpty()) {
+            int minX = MathHelper.floor(x - distance) >> 4;
+            int minZ = MathHelper.floor(z - distance) >> 4;
+            int maxX = MathHelper.floor(x + distance) >> 4;
+            int maxZ = MathHelper.floor(z + distance) >> 4;
+            for (int cX = minX; cX <= maxX; ++cX) {
+                for (int cZ = minZ; cZ <= maxZ; ++cZ) {
+                    Map<DimensionalBlockPos, IImpetusNode> chunk = dimChunks.get(ChunkPos.asLong(cX, cZ));
+                    if (chunk != null)
+                        dest.addAll(chunk.values());
+                }
+            }
+        }
+    }
+    
     public static Collection<IImpetusNode> getAllRenderableNodes(int dim) {
         return nodes.getOrDefault(dim, EMPTY).values();
     }
@@ -21,6 +21,8 @@
 package thecodex6824.thaumicaugmentation.api.graph;
 
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public interface INode<Graph extends IGraph<Self>, Self> {
 
@@ -44,6 +46,26 @@ public interface INode<Graph extends IGraph<Self>, Self> {
     
     public Set<Self> getOutputs();
     
+    public default void forEachInput(Consumer<Self> action) {
+        forEachInput(action, Consumer::accept);
+    }
+    
+    public default void forEachOutput(Consumer<Self> action) {
+        forEachOutput(action, Consumer::accept);
+    }
+    
+    // the context is passed to the action with each node, so callers can hand over their state
+    // with a lambda that captures nothing instead of allocating a new one for every call
+    public default <C> void forEachInput(C context, BiConsumer<C, Self> action) {
+        for (Self input : getInputs())
+            action.accept(context, input);
+    }
+    
+    public default <C> void forEachOutput(C context, BiConsumer<C, Self> action) {
+        for (Self output : getOutputs())
+            action.accept(context, output);
+    }
+    
     public boolean hasInput(Self in);
     
     public boolean hasOutput(Self out);
@@ -20,12 +20,17 @@
 
 package thecodex6824.thaumicaugmentation.api.impetus.node;
 
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.Nullable;
 
 import thecodex6824.thaumicaugmentation.api.graph.IGraph;
 import thecodex6824.thaumicaugmentation.api.util.DimensionalBlockPos;
+import thecodex6824.thaumicaugmentation.api.util.UnmodifiableDeque;
 
 public interface IImpetusGraph extends IGraph<IImpetusNode> {
     
@@ -33,4 +38,19 @@ public interface IImpetusGraph extends IGraph<IImpetusNode> {
     
     public @Nullable IImpetusNode findNodeByPosition(DimensionalBlockPos pos);
     
+    // maps each direct provider of the node to the path from that provider to the node,
+    // or to null if there is no path (which means the graph has bad links)
+    // the returned map and paths may be shared between calls, so they are read-only
+    public default Map<IImpetusProvider, Deque<IImpetusNode>> findDirectProviderPaths(IImpetusNode node) {
+        Map<IImpetusProvider, Deque<IImpetusNode>> result = new IdentityHashMap<>();
+        for (IImpetusProvider provider : findDirectProviders(node)) {
+            Deque<IImpetusNode> path = findPath(provider, node);
+            result.put(provider, path != null ? new UnmodifiableDeque<>(path) : null);
+        }
+        
+        return Collections.unmodifiableMap(result);
+    }
+    
+    public default void invalidateRoutes() {}
+    
 }
@@ -27,8 +27,10 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.function.BiConsumer;
 
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
@@ -127,28 +129,30 @@ public final class NodeHelper {
         if (amount <= 0)
             return new ConsumeResult(0, Collections.emptyMap());
         
-        ArrayList<IImpetusProvider> providers = new ArrayList<>(dest.getGraph().findDirectProviders(dest));
-        if (!providers.isEmpty()) {
-            providers.sort((p1, p2) -> Long.compare(p2.provide(Long.MAX_VALUE, true), p1.provide(Long.MAX_VALUE, true)));
+        Map<IImpetusProvider, Deque<IImpetusNode>> routes = dest.getGraph().findDirectProviderPaths(dest);
+        if (!routes.isEmpty()) {
+            ArrayList<IImpetusProvider> providers = new ArrayList<>(routes.size());
+            Object2LongOpenHashMap<IImpetusProvider> available = new Object2LongOpenHashMap<>(routes.size());
+            boolean invalidPath = false;
+            for (Map.Entry<IImpetusProvider, Deque<IImpetusNode>> entry : routes.entrySet()) {
+                if (entry.getValue() != null) {
+                    providers.add(entry.getKey());
+                    available.put(entry.getKey(), entry.getKey().provide(Long.MAX_VALUE, true));
+                }
+                else
+                    invalidPath = true;
+            }
+            
+            if (invalidPath)
+                validateFullGraph(dest.getGraph());
+            
+            providers.sort((p1, p2) -> Long.compare(available.getLong(p2), available.getLong(p1)));
             if (amount < providers.size()) {
                 int remove = providers.size() - (int) amount;
                 for (int i = 0; i < remove; ++i)
                     providers.remove(providers.size() - 1);
             }
             
-            ArrayList<Deque<IImpetusNode>> paths = new ArrayList<>(providers.size());
-            HashSet<IImpetusProvider> removedProviders = new HashSet<>();
-            for (IImpetusProvider p : providers) {
-                Deque<IImpetusNode> path = dest.getGraph().findPath(p, dest);
-                if (path != null)
-                    paths.add(path);
-                else {
-                    validateFullGraph(p.getGraph());
-                    removedProviders.add(p);
-                }
-            }
-            
-            providers.removeAll(removedProviders);
             if (providers.size() > 0) {
                 long drawn = 0;
                 long step = amount / providers.size();
@@ -158,7 +162,7 @@ public final class NodeHelper {
                     IImpetusProvider p = providers.get(i);
                     long actuallyDrawn = p.provide(Math.min(step + (remain > 0 ? 1 : 0), amount - drawn), true);
                     if (actuallyDrawn > 0) {
-                        Deque<IImpetusNode> nodes = paths.get(i);
+                        Deque<IImpetusNode> nodes = routes.get(p);
                         for (IImpetusNode n : nodes) {
                             actuallyDrawn = n.onTransaction(nodes, actuallyDrawn, simulate);
                             if (actuallyDrawn <= 0)
@@ -223,26 +227,25 @@ public final class NodeHelper {
     public static void validateFullGraph(IImpetusGraph graph) {
         // check for nodes with invalid links
         // i.e. an input with no corresponding output, or the other way around
-        HashSet<IImpetusNode> toRemove = new HashSet<>();
+        // neighbors are copied out first so links can be removed while going through them
+        ArrayList<IImpetusNode> neighbors = new ArrayList<>();
         for (IImpetusNode node : graph.getNodes()) {
-            for (IImpetusNode input : node.getInputs()) {
+            node.forEachInput(neighbors, ArrayList::add);
+            for (int i = 0; i < neighbors.size(); ++i) {
+                IImpetusNode input = neighbors.get(i);
                 if (!input.hasOutput(node))
-                    toRemove.add(input);
+                    node.removeInput(input);
             }
             
-            for (IImpetusNode n : toRemove)
-                node.removeInput(n);
-            
-            toRemove.clear();
-            for (IImpetusNode output : node.getOutputs()) {
+            neighbors.clear();
+            node.forEachOutput(neighbors, ArrayList::add);
+            for (int i = 0; i < neighbors.size(); ++i) {
+                IImpetusNode output = neighbors.get(i);
                 if (!output.hasInput(node))
-                    toRemove.add(output);
+                    node.removeOutput(output);
             }
             
-            for (IImpetusNode n : toRemove)
-                node.removeOutput(n);
-            
-            toRemove.clear();
+            neighbors.clear();
         }
     }
     
@@ -258,7 +261,7 @@ public final class NodeHelper {
                     double dist = node.getLocation().getPos().distanceSq(output.getLocation().getPos());
                     if ((enforce1 && dist > node.getMaxConnectDistance(output) * node.getMaxConnectDistance(output)) ||
                             (enforce2 && dist > output.getMaxConnectDistance(node) * output.getMaxConnectDistance(node)) ||
-                            !nodesPassDefaultCollisionCheck(sharedWorld, node, output)) {
+                            !TAInternals.checkImpetusLineOfSight(sharedWorld, node, output)) {
                     
                         node.removeOutput(output);
                         changed.add(node);
@@ -313,6 +316,12 @@ public final class NodeHelper {
             TAInternals.syncImpetusTransaction(path);
     }
     
+    // defers syncing and beam damage to the end of the world tick, merging identical paths and segments
+    public static void queueImpetusTransactions(Map<Deque<IImpetusNode>, Long> paths) {
+        for (Map.Entry<Deque<IImpetusNode>, Long> entry : paths.entrySet())
+            TAInternals.queueImpetusTransaction(entry.getKey(), entry.getValue());
+    }
+    
     public static void syncImpetusNodeFully(IImpetusNode node) {
         TAInternals.fullySyncImpetusNode(node);
     }
@@ -21,10 +21,12 @@
 package thecodex6824.thaumicaugmentation.api.impetus.node.prefab;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -32,6 +34,7 @@ import javax.annotation.Nullable;
 
 import com.google.common.collect.ImmutableSet;
 
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import thecodex6824.thaumicaugmentation.api.impetus.node.IImpetusGraph;
 import thecodex6824.thaumicaugmentation.api.impetus.node.IImpetusNode;
 import thecodex6824.thaumicaugmentation.api.impetus.node.IImpetusProvider;
@@ -40,9 +43,11 @@ import thecodex6824.thaumicaugmentation.api.util.DimensionalBlockPos;
 public class ImpetusGraph implements IImpetusGraph {
 
     protected Map<DimensionalBlockPos, IImpetusNode> nodes;
+    protected Map<IImpetusNode, Map<IImpetusProvider, Deque<IImpetusNode>>> routes;
     
     public ImpetusGraph() {
         nodes = new HashMap<>();
+        routes = new IdentityHashMap<>();
     }
     
     @Override
@@ -52,13 +57,19 @@ public class ImpetusGraph implements IImpetusGraph {
             addAndMergeGraph(node);
             return true;
         }
-        else
-            return nodes.put(node.getLocation(), node) == null;
+        else {
+            IImpetusNode old = nodes.put(node.getLocation(), node);
+            if (old != node)
+                invalidateRoutes();
+            
+            return old == null;
+        }
     }
     
     @Override
     public boolean removeNode(IImpetusNode node) {
         if (nodes.containsKey(node.getLocation())) {
+            invalidateRoutes();
             removeAndSplitGraph(node);
             return true;
         }
@@ -88,21 +99,25 @@ public class ImpetusGraph implements IImpetusGraph {
     
     @Override
     public boolean addInput(IImpetusNode node, IImpetusNode input) {
+        invalidateRoutes();
         return node.addInput(input);
     }
     
     @Override
     public boolean addOutput(IImpetusNode node, IImpetusNode output) {
+        invalidateRoutes();
         return node.addOutput(output);
     }
     
     @Override
     public boolean removeInput(IImpetusNode node, IImpetusNode input) {
+        invalidateRoutes();
         return node.removeInput(input);
     }
     
     @Override
     public boolean removeOutput(IImpetusNode node, IImpetusNode output) {
+        invalidateRoutes();
         return node.removeOutput(output);
     }
     
@@ -119,33 +134,52 @@ public class ImpetusGraph implements IImpetusGraph {
             return ret;
         }
         else {
-            Set<IImpetusNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
-            ArrayDeque<ArrayDeque<IImpetusNode>> toCheck = new ArrayDeque<>();
-            ArrayDeque<IImpetusNode> sPath = new ArrayDeque<>();
-            sPath.add(start);
-            toCheck.add(sPath);
-            visited.add(start);
-            
-            while (!toCheck.isEmpty()) {
-                 ArrayDeque<IImpetusNode> currentPath = toCheck.poll();
-                 for (IImpetusNode n : currentPath.getLast().getOutputs()) {
-                     if (!visited.contains(n)) {
-                         if (n == end) {
-                             currentPath.add(n);
-                             return currentPath;
-                         }
-                         else {
-                             ArrayDeque<IImpetusNode> copy = new ArrayDeque<>(currentPath);
-                             copy.add(n);
-                             toCheck.add(copy);
-                             visited.add(n);
-                         }
-                     }
-                 }
+            // stores the node each visited node was found from, so only one path needs to be built at the end
+            Map<IImpetusNode, IImpetusNode> parents = new IdentityHashMap<>();
+            ArrayDeque<IImpetusNode> toCheck = new ArrayDeque<>();
+            ArrayList<IImpetusNode> outputs = new ArrayList<>();
+            toCheck.add(start);
+            parents.put(start, start);
+            while (!toCheck.isEmpty() && !parents.containsKey(end)) {
+                IImpetusNode current = toCheck.poll();
+                outputs.clear();
+                current.forEachOutput(outputs, ArrayList::add);
+                for (int i = 0; i < outputs.size(); ++i) {
+                    IImpetusNode n = outputs.get(i);
+                    if (!parents.containsKey(n)) {
+                        parents.put(n, current);
+                        toCheck.add(n);
+                    }
+                }
             }
             
-            return null;
+            if (!parents.containsKey(end))
+                return null;
+            
+            ArrayDeque<IImpetusNode> path = new ArrayDeque<>();
+            for (IImpetusNode n = end; n != start; n = parents.get(n))
+                path.addFirst(n);
+            
+            path.addFirst(start);
+            return path;
+        }
+    }
+    
+    @Override
+    public Map<IImpetusProvider, Deque<IImpetusNode>> findDirectProviderPaths(IImpetusNode node) {
+        Map<IImpetusProvider, Deque<IImpetusNode>> result = routes.get(node);
+        if (result == null) {
+            result = IImpetusGraph.super.findDirectProviderPaths(node);
+            routes.put(node, result);
         }
+        
+        return result;
+    }
+    
+    @Override
+    public void invalidateRoutes() {
+        if (!routes.isEmpty())
+            routes.clear();
     }
     
     @Override
@@ -156,12 +190,11 @@ public class ImpetusGraph implements IImpetusGraph {
         toCheck.add(node);
         while (!toCheck.isEmpty()) {
             IImpetusNode check = toCheck.pop();
-            if (!visited.contains(check)) {
-                visited.add(check);
+            if (visited.add(check)) {
                 if (check != node && check instanceof IImpetusProvider)
                     providers.add((IImpetusProvider) check);
                 else
-                    toCheck.addAll(check.getInputs());
+                    check.forEachInput(toCheck, ArrayDeque::add);
             }
         }
         
@@ -169,66 +202,148 @@ public class ImpetusGraph implements IImpetusGraph {
     }
     
     protected void addAndMergeGraph(IImpetusNode adding) {
-        if (nodes.size() > adding.getGraph().size()) {
-            IImpetusGraph otherGraph = adding.getGraph();
+        IImpetusGraph otherGraph = adding.getGraph();
+        if (otherGraph instanceof ImpetusGraph) {
+            ImpetusGraph other = (ImpetusGraph) otherGraph;
+            if (nodes.size() > other.nodes.size())
+                moveAllNodes(other, this);
+            else
+                moveAllNodes(this, other);
+        }
+        else if (nodes.size() > otherGraph.size()) {
             for (IImpetusNode node : otherGraph.getNodes()) {
                 otherGraph.removeNode(node);
                 node.setGraph(this);
                 nodes.put(node.getLocation(), node);
             }
+            
+            invalidateRoutes();
         }
         else {
-            IImpetusGraph otherGraph = adding.getGraph();
             for (IImpetusNode node : nodes.values()) {
                 node.setGraph(otherGraph);
                 otherGraph.addNode(node);
             }
             
             nodes.clear();
+            invalidateRoutes();
         }
     }
     
+    protected static void moveAllNodes(ImpetusGraph from, ImpetusGraph to) {
+        for (IImpetusNode node : from.nodes.values()) {
+            node.setGraph(to);
+            to.nodes.put(node.getLocation(), node);
+        }
+        
+        from.nodes.clear();
+        from.invalidateRoutes();
+        to.invalidateRoutes();
+    }
+    
     protected void removeAndSplitGraph(IImpetusNode splitAt) {
         Set<IImpetusNode> notify = Collections.newSetFromMap(new IdentityHashMap<>());
-        notify.addAll(splitAt.getInputs());
-        notify.addAll(splitAt.getOutputs());
+        splitAt.forEachInput(notify, Set::add);
+        splitAt.forEachOutput(notify, Set::add);
         for (IImpetusNode other : notify)
             other.onDisconnected(splitAt);
         
         nodes.remove(splitAt.getLocation());
-        if (!nodes.isEmpty()) {
-            Map<IImpetusNode, Integer> tags = new IdentityHashMap<>();
-            int tag = 0;
-            while (tags.size() < nodes.size()) {
-                ArrayDeque<IImpetusNode> toCheck = new ArrayDeque<>();
-                toCheck.add(nodes.values().stream().filter(node -> !tags.containsKey(node)).findFirst().get());
-                while (!toCheck.isEmpty()) {
-                    IImpetusNode node = toCheck.pop();
-                    if (!tags.containsKey(node)) {
-                        tags.put(node, tag);
-                        toCheck.addAll(node.getInputs());
-                        toCheck.addAll(node.getOutputs());
+        notify.removeIf(node -> nodes.get(node.getLocation()) != node);
+        // a node with less than 2 neighbors can't be holding separate parts of the graph together
+        if (notify.size() > 1)
+            splitDisconnectedComponents(new ArrayList<>(notify));
+    }
+    
+    // runs a BFS from each of the starting nodes in lockstep, merging searches when they meet
+    // a search that runs out of nodes has found a component no longer connected to the others, so it gets its own graph
+    // once only one search is left everything else is still connected, so the work done is proportional
+    // to the size of the split off components instead of the size of the whole graph
+    protected void splitDisconnectedComponents(List<IImpetusNode> starts) {
+        int count = starts.size();
+        int[] parents = new int[count];
+        List<ArrayDeque<IImpetusNode>> frontiers = new ArrayList<>(count);
+        List<List<IImpetusNode>> visited = new ArrayList<>(count);
+        Reference2IntOpenHashMap<IImpetusNode> owners = new Reference2IntOpenHashMap<>();
+        owners.defaultReturnValue(-1);
+        for (int i = 0; i < count; ++i) {
+            IImpetusNode start = starts.get(i);
+            parents[i] = i;
+            ArrayDeque<IImpetusNode> frontier = new ArrayDeque<>();
+            frontier.add(start);
+            frontiers.add(frontier);
+            List<IImpetusNode> seen = new ArrayList<>();
+            seen.add(start);
+            visited.add(seen);
+            owners.put(start, i);
+        }
+        
+        ArrayList<IImpetusNode> neighbors = new ArrayList<>();
+        int remaining = count;
+        while (remaining > 1) {
+            for (int i = 0; i < count && remaining > 1; ++i) {
+                ArrayDeque<IImpetusNode> frontier = frontiers.get(i);
+                if (frontier == null)
+                    continue;
+                
+                IImpetusNode node = frontier.poll();
+                neighbors.clear();
+                node.forEachInput(neighbors, ArrayList::add);
+                node.forEachOutput(neighbors, ArrayList::add);
+                for (int n = 0; n < neighbors.size(); ++n) {
+                    IImpetusNode neighbor = neighbors.get(n);
+                    int owner = owners.getInt(neighbor);
+                    if (owner == -1) {
+                        owners.put(neighbor, i);
+                        frontier.add(neighbor);
+                        visited.get(i).add(neighbor);
+                    }
+                    else {
+                        int root = findRoot(parents, owner);
+                        if (root != i) {
+                            parents[root] = i;
+                            frontier.addAll(frontiers.get(root));
+                            List<IImpetusNode> ours = visited.get(i);
+                            List<IImpetusNode> theirs = visited.get(root);
+                            if (theirs.size() > ours.size()) {
+                                theirs.addAll(ours);
+                                visited.set(i, theirs);
+                            }
+                            else
+                                ours.addAll(theirs);
+                            
+                            frontiers.set(root, null);
+                            visited.set(root, null);
+                            --remaining;
+                        }
                     }
                 }
                 
-                ++tag;
-            }
-            
-            if (tag > 0) {
-                for (int i = 0; i < tag; ++i) {
-                    final int currentTag = i;
+                if (frontier.isEmpty() && remaining > 1) {
                     ImpetusGraph newGraph = new ImpetusGraph();
-                    tags.entrySet().removeIf(entry -> {
-                        if (entry.getValue() == currentTag) {
-                            newGraph.addNode(entry.getKey());
-                            return true;
-                        }
-                        else
-                            return false;
-                    });
+                    for (IImpetusNode split : visited.get(i)) {
+                        nodes.remove(split.getLocation());
+                        split.setGraph(newGraph);
+                        newGraph.nodes.put(split.getLocation(), split);
+                    }
+                    
+                    frontiers.set(i, null);
+                    visited.set(i, null);
+                    --remaining;
                 }
             }
         }
+        
+        invalidateRoutes();
+    }
+    
+    private static int findRoot(int[] parents, int index) {
+        while (parents[index] != index) {
+            parents[index] = parents[parents[index]];
+            index = parents[index];
+        }
+        
+        return index;
     }
     
 }
@@ -23,6 +23,7 @@ package thecodex6824.thaumicaugmentation.api.impetus.node.prefab;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 import net.minecraft.nbt.NBTTagCompound;
@@ -135,8 +136,10 @@ public class ImpetusNode implements IImpetusNode, INBTSerializable<NBTTagCompoun
         boolean removedThem = inputs.remove(input.getLocation());
         if (removedUs)
             onDisconnected(input);
-        if (removedThem)
+        if (removedThem) {
+            graph.invalidateRoutes();
             input.onDisconnected(this);
+        }
         
         return removedThem;
     }
@@ -147,8 +150,10 @@ public class ImpetusNode implements IImpetusNode, INBTSerializable<NBTTagCompoun
         boolean removedThem = outputs.remove(output.getLocation());
         if (removedUs)
             onDisconnected(output);
-        if (removedThem)
+        if (removedThem) {
+            graph.invalidateRoutes();
             output.onDisconnected(this);
+        }
         
         return removedThem;
     }
@@ -183,7 +188,12 @@ public class ImpetusNode implements IImpetusNode, INBTSerializable<NBTTagCompoun
         if (inputs.size() == maxInputs && !inputs.contains(toConnect))
             throw new IndexOutOfBoundsException("Exceeded maximum amount of inputs for node (" + inputs.size() + ")");
         
-        return inputs.add(toConnect);
+        if (inputs.add(toConnect)) {
+            graph.invalidateRoutes();
+            return true;
+        }
+        else
+            return false;
     }
     
     @Override
@@ -191,17 +201,32 @@ public class ImpetusNode implements IImpetusNode, INBTSerializable<NBTTagCompoun
         if (outputs.size() == maxOutputs && !outputs.contains(toConnect))
             throw new IndexOutOfBoundsException("Exceeded maximum amount of outputs for node (" + outputs.size() + ")");
         
-        return outputs.add(toConnect);
+        if (outputs.add(toConnect)) {
+            graph.invalidateRoutes();
+            return true;
+        }
+        else
+            return false;
     }
     
     @Override
     public boolean removeInputLocation(DimensionalBlockPos toRemove) {
-        return inputs.remove(toRemove);
+        if (inputs.remove(toRemove)) {
+            graph.invalidateRoutes();
+            return true;
+        }
+        else
+            return false;
     }
     
     @Override
     public boolean removeOutputLocation(DimensionalBlockPos toRemove) {
-        return outputs.remove(toRemove);
+        if (outputs.remove(toRemove)) {
+            graph.invalidateRoutes();
+            return true;
+        }
+        else
+            return false;
     }
     
     @Override
@@ -224,6 +249,24 @@ public class ImpetusNode implements IImpetusNode, INBTSerializable<NBTTagCompoun
         return outputs.stream().map(loc -> graph.findNodeByPosition(loc)).filter(Objects::nonNull).collect(Collectors.toSet());
     }
     
+    @Override
+    public <C> void forEachInput(C context, BiConsumer<C, IImpetusNode> action) {
+        for (DimensionalBlockPos pos : inputs) {
+            IImpetusNode node = graph.findNodeByPosition(pos);
+            if (node != null)
+                action.accept(context, node);
+        }
+    }
+    
+    @Override
+    public <C> void forEachOutput(C context, BiConsumer<C, IImpetusNode> action) {
+        for (DimensionalBlockPos pos : outputs) {
+            IImpetusNode node = graph.findNodeByPosition(pos);
+            if (node != null)
+                action.accept(context, node);
+        }
+    }
+    
     @Override
     public DimensionalBlockPos getLocation() {
         return loc;
@@ -346,6 +389,8 @@ public class ImpetusNode implements IImpetusNode, INBTSerializable<NBTTagCompoun
         list = nbt.getTagList("outputs", NBT.TAG_INT_ARRAY);
         for (int i = 0; i < list.tagCount(); ++i)
             outputs.add(new DimensionalBlockPos(list.getIntArrayAt(i)));
+        
+        graph.invalidateRoutes();
     }
     
     @Override
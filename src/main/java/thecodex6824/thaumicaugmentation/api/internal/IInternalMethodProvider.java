@@ -24,6 +24,7 @@ import java.util.Collection;
 
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.World;
 import thecodex6824.thaumicaugmentation.api.impetus.node.IImpetusNode;
 import thecodex6824.thaumicaugmentation.api.util.DimensionalBlockPos;
 
@@ -43,6 +44,10 @@ public interface IInternalMethodProvider {
     
     public void syncImpetusTransaction(Collection<IImpetusNode> path);
     
+    public void queueImpetusTransaction(Collection<IImpetusNode> path, long energy);
+    
+    public boolean checkImpetusLineOfSight(World sharedWorld, IImpetusNode node1, IImpetusNode node2);
+    
     public void fullySyncImpetusNode(IImpetusNode node);
     
     public void updateImpetusNode(IImpetusNode node, DimensionalBlockPos connection, boolean output, boolean remove);
@@ -24,6 +24,7 @@ import java.util.Collection;
 
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.world.World;
 import thecodex6824.thaumicaugmentation.api.impetus.node.IImpetusNode;
 import thecodex6824.thaumicaugmentation.api.util.DimensionalBlockPos;
 
@@ -65,6 +66,14 @@ public final class TAInternals {
         provider.syncImpetusTransaction(path);
     }
     
+    public static void queueImpetusTransaction(Collection<IImpetusNode> path, long energy) {
+        provider.queueImpetusTransaction(path, energy);
+    }
+    
+    public static boolean checkImpetusLineOfSight(World sharedWorld, IImpetusNode node1, IImpetusNode node2) {
+        return provider.checkImpetusLineOfSight(sharedWorld, node1, node2);
+    }
+    
     public static void fullySyncImpetusNode(IImpetusNode node) {
         provider.fullySyncImpetusNode(node);
     }
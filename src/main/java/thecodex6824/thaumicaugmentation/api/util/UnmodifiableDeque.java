@@ -0,0 +1,204 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.api.util;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.function.Predicate;
+
+import com.google.common.collect.Iterators;
+
+/**
+ * A read-only view of another Deque. Every method that would modify the deque throws
+ * an UnsupportedOperationException instead. Like ArrayDeque, equality is by identity.
+ * @param <T> The type of element in the deque
+ */
+public class UnmodifiableDeque<T> extends AbstractCollection<T> implements Deque<T> {
+    
+    protected final Deque<T> delegate;
+    
+    public UnmodifiableDeque(Deque<T> wrap) {
+        delegate = wrap;
+    }
+    
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+    
+    @Override
+    public boolean contains(Object o) {
+        return delegate.contains(o);
+    }
+    
+    @Override
+    public Iterator<T> iterator() {
+        return Iterators.unmodifiableIterator(delegate.iterator());
+    }
+    
+    @Override
+    public Iterator<T> descendingIterator() {
+        return Iterators.unmodifiableIterator(delegate.descendingIterator());
+    }
+    
+    @Override
+    public T getFirst() {
+        return delegate.getFirst();
+    }
+    
+    @Override
+    public T getLast() {
+        return delegate.getLast();
+    }
+    
+    @Override
+    public T peekFirst() {
+        return delegate.peekFirst();
+    }
+    
+    @Override
+    public T peekLast() {
+        return delegate.peekLast();
+    }
+    
+    @Override
+    public T element() {
+        return delegate.element();
+    }
+    
+    @Override
+    public T peek() {
+        return delegate.peek();
+    }
+    
+    @Override
+    public void addFirst(T e) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public void addLast(T e) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public boolean offerFirst(T e) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public boolean offerLast(T e) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public T removeFirst() {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public T removeLast() {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public T pollFirst() {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public T pollLast() {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public boolean add(T e) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public boolean offer(T e) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public T remove() {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public boolean remove(Object o) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public T poll() {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public void push(T e) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public T pop() {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        throw new UnsupportedOperationException();
+    }
+    
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+    
+}
@@ -21,26 +21,32 @@
 package thecodex6824.thaumicaugmentation.api.ward;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
 
-import javax.annotation.Nullable;
-
-import com.google.common.collect.Multimap;
-import com.google.common.collect.MultimapBuilder;
-
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import thecodex6824.thaumicaugmentation.api.ward.storage.IWardStorageServer;
 
 /**
- * Handles syncing ward changes to clients.
+ * Handles syncing ward changes to clients. Changes are collected per chunk, with
+ * repeated changes to the same block collapsed into the latest one.
  * @author TheCodex6824
  */
 public final class WardSyncManager {
 
     private WardSyncManager() {}
     
+    /**
+     * The amount of changed blocks in a single chunk after which a full sync
+     * of the chunk will be sent instead of the individual changes.
+     */
+    public static final int FULL_SYNC_THRESHOLD = 256;
+    
     public static class DimensionalChunkPos {
         
         public final int dim;
@@ -53,26 +59,92 @@ public final class WardSyncManager {
             this.z = z;
         }
         
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof DimensionalChunkPos) {
+                DimensionalChunkPos other = (DimensionalChunkPos) obj;
+                return dim == other.dim && x == other.x && z == other.z;
+            }
+            else
+                return false;
+        }
+        
+        @Override
+        public int hashCode() {
+            return (x * 31 + z) * 31 + dim;
+        }
+        
     }
     
-    public static class WardUpdateEntry {
+    public static class ChunkWardUpdate {
+        
+        protected Int2ObjectOpenHashMap<UUID> changes;
+        protected boolean fullSync;
+        
+        public ChunkWardUpdate() {
+            changes = new Int2ObjectOpenHashMap<>();
+            fullSync = false;
+        }
         
-        public final BlockPos pos;
+        public void markForFullSync() {
+            fullSync = true;
+            changes.clear();
+        }
         
-        @Nullable
-        public final UUID update;
+        public void setOwner(int localIndex, UUID owner) {
+            if (!fullSync) {
+                changes.put(localIndex, owner);
+                if (changes.size() > FULL_SYNC_THRESHOLD)
+                    markForFullSync();
+            }
+        }
         
-        public WardUpdateEntry(BlockPos p, UUID data) {
-            pos = p;
-            update = data;
+        public boolean needsFullSync() {
+            return fullSync;
         }
         
+        /**
+         * Returns the changed blocks in this chunk, keyed by the index returned by
+         * {@link WardSyncManager#getLocalIndex(BlockPos)}. This will be empty if a full
+         * sync is needed.
+         * @return The changed blocks
+         */
+        public Int2ObjectMap<UUID> getChanges() {
+            return changes;
+        }
+        
+    }
+    
+    private static Map<DimensionalChunkPos, ChunkWardUpdate> entries = new HashMap<>();
+    
+    /**
+     * Returns the index of the position inside of its chunk, which is the
+     * same index used by the ward storage classes.
+     * @param pos The position to get the index of
+     * @return The index of the position in its chunk
+     */
+    public static int getLocalIndex(BlockPos pos) {
+        return (pos.getX() & 15) + (pos.getY() & 255) * 16 + (pos.getZ() & 15) * 16 * 256;
     }
     
-    private static Multimap<DimensionalChunkPos, WardUpdateEntry> entries = MultimapBuilder.hashKeys().arrayListValues(16).build();
+    /**
+     * Converts an index returned by {@link #getLocalIndex(BlockPos)} back to a world position.
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @param index The index of the position inside the chunk
+     * @return The world position
+     */
+    public static BlockPos fromLocalIndex(int chunkX, int chunkZ, int index) {
+        return new BlockPos((chunkX << 4) + (index & 15), (index >>> 4) & 255, (chunkZ << 4) + (index >>> 12));
+    }
+    
+    private static ChunkWardUpdate getUpdate(World world, BlockPos pos) {
+        return entries.computeIfAbsent(new DimensionalChunkPos(world.provider.getDimension(), pos.getX() >> 4, pos.getZ() >> 4),
+                k -> new ChunkWardUpdate());
+    }
     
     public static void markChunkForFullSync(World world, BlockPos pos) {
-        markPosForNewOwner(world, pos, null);
+        getUpdate(world, pos).markForFullSync();
     }
     
     public static void markPosForClear(World world, BlockPos pos) {
@@ -80,12 +152,11 @@ public final class WardSyncManager {
     }
     
     public static void markPosForNewOwner(World world, BlockPos pos, UUID newOwner) {
-        entries.put(new DimensionalChunkPos(world.provider.getDimension(), pos.getX() >> 4, pos.getZ() >> 4), 
-                new WardUpdateEntry(pos.toImmutable(), newOwner));
+        getUpdate(world, pos).setOwner(getLocalIndex(pos), newOwner);
     }
     
-    public static Collection<Entry<DimensionalChunkPos, WardUpdateEntry>> getEntries() {
-        return entries.entries();
+    public static Collection<Entry<DimensionalChunkPos, ChunkWardUpdate>> getEntries() {
+        return entries.entrySet();
     }
     
     public static void clearEntries() {
@@ -36,4 +36,25 @@ public interface IWardStorage {
      */
     public boolean hasWard(BlockPos pos);
     
+    /**
+     * Returns a mask of the 16 block tall sections of this storage that contain at least one ward.
+     * Bit n being set means that section n (y levels n * 16 to n * 16 + 15) may have a ward in it.
+     * Implementations are allowed to report sections that have no wards, but must never leave out
+     * a section that does have a ward. This is intended to allow callers to skip {@link #hasWard(BlockPos)}
+     * for the vast majority of blocks that are not warded.
+     * @return The mask of sections that may contain wards
+     */
+    public default int getWardedSectionMask() {
+        return 0xFFFF;
+    }
+    
+    /**
+     * Returns if the section containing the given position may have any wards in it.
+     * @param pos The position to check the section of
+     * @return If the section containing the position may have wards
+     */
+    public default boolean mayHaveWardInSection(BlockPos pos) {
+        return (getWardedSectionMask() & (1 << ((pos.getY() & 255) >> 4))) != 0;
+    }
+    
 }
@@ -129,7 +129,8 @@ public interface IWardStorageServer extends IWardStorage {
      * sync means that it should include all blocks needed in a storage instance such that
      * the client will have an up-to-date view of the wards in this area, no matter
      * what data they already have. If this storage has no meaningful data,
-     * null can be returned to not do a sync.
+     * null can be returned to not do a sync. The returned tag may be cached and shared between
+     * players, so it must not be modified.
      * @param chunk The chunk that is to be synced
      * @param player The player that needs to be synced to
      * @return An NBTTagCompound to send to the client for sync purposes, or null if no sync is needed
@@ -142,6 +143,7 @@ public interface IWardStorageServer extends IWardStorage {
      * the client will have an up-to-date view of the wards in this area, no matter
      * what data they already have. If this storage has no meaningful data,
      * null can be returned to not do a sync unless force is true, in which case it will still return data.
+     * The returned tag may be cached and shared between players, so it must not be modified.
      * @param chunk The chunk that is to be synced
      * @param player The player that needs to be synced to
      * @param force To force the storage to return a tag compound, even if it has no meaningful data
@@ -149,4 +151,13 @@ public interface IWardStorageServer extends IWardStorage {
      */
     public @Nullable NBTTagCompound fullSyncToClient(Chunk chunk, UUID player, boolean force);
     
+    /**
+     * Called when a player stops tracking the chunk this storage is in. Implementations that
+     * cache the results of {@link #fullSyncToClient} can use this to drop data that no one
+     * is going to receive anymore.
+     * @param player The player that stopped tracking the chunk
+     * @param lastViewer If no players are tracking the chunk anymore
+     */
+    public default void releaseClientView(UUID player, boolean lastViewer) {}
+    
 }
@@ -124,9 +124,43 @@ public class WardStorageClient implements IWardStorageClient {
     }
     
     protected StorageManagersClient.IWardStorageManagerClient manager;
+    // number of wards in each 16 block tall section, and a mask of the sections with any wards
+    protected char[] sectionCounts;
+    protected int sectionMask;
     
     public WardStorageClient() {
         manager = new StorageManagersClient.StorageManagerNull();
+        sectionCounts = new char[16];
+    }
+    
+    protected void updateSection(BlockPos pos, boolean hadWard, boolean hasWard) {
+        if (hadWard != hasWard) {
+            int section = (pos.getY() & 255) >> 4;
+            if (hasWard) {
+                if (sectionCounts[section]++ == 0)
+                    sectionMask |= 1 << section;
+            }
+            else if (--sectionCounts[section] == 0)
+                sectionMask &= ~(1 << section);
+        }
+    }
+    
+    protected void recalculateSections(byte[] data) {
+        Arrays.fill(sectionCounts, (char) 0);
+        sectionMask = 0;
+        for (int i = 0; i < data.length; ++i) {
+            if (data[i] != 0) {
+                // each byte is 4 positions, and 256 positions in a row always share a y section
+                int section = (i >> 6) & 15;
+                sectionCounts[section] += Integer.bitCount((data[i] | (data[i] >>> 1)) & 0x55);
+                sectionMask |= 1 << section;
+            }
+        }
+    }
+    
+    @Override
+    public int getWardedSectionMask() {
+        return sectionMask;
     }
     
     @Override
@@ -138,7 +172,9 @@ public class WardStorageClient implements IWardStorageClient {
             if (manager.isNullStorage())
                 manager = new StorageManagersClient.StorageManager2Bits();
             
+            boolean had = hasWard(pos);
             manager.setOwner(pos, val);
+            updateSection(pos, had, val != ClientWardStorageValue.EMPTY);
             MinecraftForge.EVENT_BUS.post(new BlockWardEvent.WardedClient.Post(world, pos, val));
         }
     }
@@ -149,7 +185,9 @@ public class WardStorageClient implements IWardStorageClient {
         BlockWardEvent.DewardedClient event = new BlockWardEvent.DewardedClient.Pre(world, pos);
         MinecraftForge.EVENT_BUS.post(event);
         if (!event.isCanceled()) {
+            boolean had = hasWard(pos);
             manager.setOwner(pos, ClientWardStorageValue.EMPTY);
+            updateSection(pos, had, false);
             MinecraftForge.EVENT_BUS.post(new BlockWardEvent.DewardedClient.Post(world, pos));
         }
     }
@@ -157,6 +195,8 @@ public class WardStorageClient implements IWardStorageClient {
     @Override
     public void clearAllWards() {
         manager.clearAll();
+        Arrays.fill(sectionCounts, (char) 0);
+        sectionMask = 0;
     }
     
     @Override
@@ -166,12 +206,22 @@ public class WardStorageClient implements IWardStorageClient {
     
     @Override
     public boolean hasWard(BlockPos pos) {
-        return getWard(pos) != ClientWardStorageValue.EMPTY;
+        return (sectionMask & (1 << ((pos.getY() & 255) >> 4))) != 0 && getWard(pos) != ClientWardStorageValue.EMPTY;
     }
     
     @Override
     public void deserializeNBT(NBTTagCompound nbt) {
-        manager = new StorageManagersClient.StorageManager2Bits(nbt.getByteArray("d"));
+        // a sync without data means nothing in the chunk is warded
+        if (nbt.hasKey("d")) {
+            byte[] data = nbt.getByteArray("d");
+            manager = new StorageManagersClient.StorageManager2Bits(data);
+            recalculateSections(data);
+        }
+        else {
+            manager = new StorageManagersClient.StorageManagerNull();
+            Arrays.fill(sectionCounts, (char) 0);
+            sectionMask = 0;
+        }
     }
     
 }
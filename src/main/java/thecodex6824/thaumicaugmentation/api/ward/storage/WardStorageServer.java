@@ -21,6 +21,7 @@
 package thecodex6824.thaumicaugmentation.api.ward.storage;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.UUID;
 
 import javax.annotation.Nullable;
@@ -31,7 +32,6 @@ import it.unimi.dsi.fastutil.objects.Object2ByteOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ShortOpenHashMap;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.BlockPos.MutableBlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.MinecraftForge;
@@ -58,6 +58,81 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
         
         private StorageManagersServer() {}
         
+        public static long readWord(byte[] src, int offset) {
+            long result = 0;
+            for (int i = 7; i >= 0; --i)
+                result = (result << 8) | (src[offset + i] & 0xFF);
+            
+            return result;
+        }
+        
+        public static void writeWord(byte[] dest, int offset, long word) {
+            for (int i = 0; i < 8; ++i) {
+                dest[offset + i] = (byte) word;
+                word >>>= 8;
+            }
+        }
+        
+        // spreads the low 32 bits of the input so that each bit lands in the low bit of a 2 bit lane
+        public static long spreadBits(long word) {
+            word &= 0xFFFFFFFFL;
+            word = (word | (word << 16)) & 0x0000FFFF0000FFFFL;
+            word = (word | (word << 8)) & 0x00FF00FF00FF00FFL;
+            word = (word | (word << 4)) & 0x0F0F0F0F0F0F0F0FL;
+            word = (word | (word << 2)) & 0x3333333333333333L;
+            word = (word | (word << 1)) & 0x5555555555555555L;
+            return word;
+        }
+        
+        // returns the number of positions in the word that have a non-zero value
+        public static int countNonZero(long word, int bits) {
+            // fold every lane down into its lowest bit, the total shift never crosses into the next lane
+            for (int shift = 1; shift < bits; shift <<= 1)
+                word |= word >>> shift;
+            
+            return Long.bitCount(word & Long.divideUnsigned(-1L, (1L << bits) - 1));
+        }
+        
+        public static int getNumWords(int bitsPerPosition) {
+            return CHUNK_DATA_SIZE / 64 * bitsPerPosition;
+        }
+        
+        public static void countValues(long word, int bits, char[] counts) {
+            long mask = (1L << bits) - 1;
+            while (word != 0) {
+                int value = (int) (word & mask);
+                if (value != 0)
+                    ++counts[value - 1];
+                
+                word >>>= bits;
+            }
+        }
+        
+        // re-packs the data of a manager into words of a different width
+        // remap translates old values (owner index + 1) into new ones, with 0 meaning no ward
+        public static long[] repack(IWardStorageManagerServer from, int toBits, int[] remap) {
+            long[] dest = new long[getNumWords(toBits)];
+            int fromBits = from.getBitsPerPosition();
+            if (fromBits > 0 && toBits > 0) {
+                long fromMask = (1L << fromBits) - 1;
+                long toMask = (1L << toBits) - 1;
+                int fromPerWord = 64 / fromBits;
+                int toPerWord = 64 / toBits;
+                int words = getNumWords(fromBits);
+                for (int word = 0; word < words; ++word) {
+                    long value = from.getDataWord(word);
+                    // wards are usually sparse, so whole empty words are skipped here
+                    for (int index = word * fromPerWord; value != 0; ++index, value >>>= fromBits) {
+                        int newValue = remap[(int) (value & fromMask)];
+                        if (newValue != 0)
+                            dest[index / toPerWord] |= (newValue & toMask) << (index % toPerWord * toBits);
+                    }
+                }
+            }
+            
+            return dest;
+        }
+        
         public static interface IWardStorageManagerServer {
             
             public byte getStorageID();
@@ -66,6 +141,13 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
             
             public int getMaxAllowedOwners();
             
+            public int getNumWards();
+            
+            // whether another ward can be stored without switching to a different manager
+            public default boolean canStoreMoreWards() {
+                return true;
+            }
+            
             public void addOwner(UUID owner);
             
             public void removeOwner(UUID owner);
@@ -86,6 +168,93 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
             
             public void deserialize(NBTTagCompound tag);
             
+            // number of bits each position takes up in the packed data words, or 0 if nothing is stored
+            public int getBitsPerPosition();
+            
+            // returns 64 / getBitsPerPosition() packed positions, starting at the lowest bits
+            // each value is 0 for no ward, or the index of the owner in getOwners() plus 1
+            public long getDataWord(int word);
+            
+            // replaces all ward data with the given packed words, recalculating the ward counts
+            // any owners referenced by the data must have already been added
+            public void setDataWords(long[] words);
+            
+            // adds all owners of the other manager and copies over its wards, re-packing them to this width
+            public default void copyOwnersAndWards(IWardStorageManagerServer other) {
+                UUID[] otherOwners = other.getOwners();
+                int[] remap = new int[otherOwners.length + 1];
+                int next = 0;
+                for (int i = 0; i < otherOwners.length; ++i) {
+                    if (!otherOwners[i].equals(NIL_UUID)) {
+                        addOwner(otherOwners[i]);
+                        remap[i + 1] = ++next;
+                    }
+                }
+                
+                if (next > 0)
+                    setDataWords(repack(other, getBitsPerPosition(), remap));
+            }
+            
+            // fills dest with 2 bits per position: 0 for no ward, 1 for the viewer's wards, and 2 for anyone else's
+            public default void exportClientView(UUID viewer, byte[] dest) {
+                Arrays.fill(dest, (byte) 0);
+                int bits = getBitsPerPosition();
+                if (bits > 0) {
+                    int self = 0;
+                    UUID[] owners = getOwners();
+                    for (int i = 0; i < owners.length; ++i) {
+                        if (!owners[i].equals(NIL_UUID) && owners[i].equals(viewer)) {
+                            self = i + 1;
+                            break;
+                        }
+                    }
+                    
+                    if (bits == 1) {
+                        for (int word = 0; word < getNumWords(1); ++word) {
+                            long value = getDataWord(word);
+                            if (value != 0) {
+                                long low = spreadBits(value);
+                                long high = spreadBits(value >>> 32);
+                                if (self == 0) {
+                                    low <<= 1;
+                                    high <<= 1;
+                                }
+                                
+                                writeWord(dest, word * 16, low);
+                                writeWord(dest, word * 16 + 8, high);
+                            }
+                        }
+                    }
+                    else if (bits == 2) {
+                        // the output has the same layout, so each word only needs its lanes rewritten
+                        for (int word = 0; word < getNumWords(2); ++word) {
+                            long value = getDataWord(word);
+                            if (value != 0) {
+                                long low = value & 0x5555555555555555L;
+                                long high = (value >>> 1) & 0x5555555555555555L;
+                                long match = 0;
+                                if (self != 0)
+                                    match = ((self & 1) != 0 ? low : ~low) & ((self & 2) != 0 ? high : ~high) & 0x5555555555555555L;
+                                
+                                writeWord(dest, word * 8, match | (((low | high) & ~match) << 1));
+                            }
+                        }
+                    }
+                    else {
+                        long mask = (1L << bits) - 1;
+                        int perWord = 64 / bits;
+                        for (int word = 0; word < getNumWords(bits); ++word) {
+                            long value = getDataWord(word);
+                            for (int index = word * perWord; value != 0; ++index, value >>>= bits) {
+                                int owner = (int) (value & mask);
+                                if (owner != 0)
+                                    dest[index / 4] |= (owner == self ? 1 : 2) << (index % 4 * 2);
+                            }
+                        }
+                    }
+                }
+            }
+            
         }
         
         public static class StorageManagerNull implements IWardStorageManagerServer {
@@ -125,6 +294,11 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                 return 0;
             }
             
+            @Override
+            public int getNumWards() {
+                return 0;
+            }
+            
             @Override
             public UUID getOwner(BlockPos pos) {
                 return NIL_UUID;
@@ -141,6 +315,19 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                 return new UUID[0];
             }
             
+            @Override
+            public int getBitsPerPosition() {
+                return 0;
+            }
+            
+            @Override
+            public long getDataWord(int word) {
+                return 0;
+            }
+            
+            @Override
+            public void setDataWords(long[] words) {}
+            
             @Override
             public NBTTagCompound serialize() {
                 return new NBTTagCompound();
@@ -165,19 +352,7 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
             
             public StorageManager1Bit(IWardStorageManagerServer other) {
                 this();
-                if (other.getMaxAllowedOwners() > 0) {
-                    owner = other.getOwners()[0];
-                    MutableBlockPos pos = new MutableBlockPos(0, 0, 0);
-                    for (int x = 0; x < CHUNK_X_SIZE; ++x) {
-                        for (int z = 0; z < CHUNK_Z_SIZE; ++z) {
-                            pos.setPos(x, 0, z);
-                            for (int y = 0; y < CHUNK_Y_SIZE; ++y) {
-                                pos.setY(y);
-                                setOwner(pos, other.getOwner(pos));
-                            }
-                        }
-                    }
-                }
+                copyOwnersAndWards(other);
             }
             
             @Override
@@ -225,6 +400,11 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                 return 1;
             }
             
+            @Override
+            public int getNumWards() {
+                return count;
+            }
+            
             @Override
             public UUID getOwner(BlockPos pos) {
                 int index = (pos.getX() & (CHUNK_X_SIZE - 1)) + (pos.getY() & (CHUNK_Y_SIZE - 1)) * CHUNK_X_SIZE + (pos.getZ() & (CHUNK_Z_SIZE - 1)) * CHUNK_X_SIZE * CHUNK_Y_SIZE;
@@ -260,6 +440,25 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                 return new UUID[] {owner};
             }
             
+            @Override
+            public int getBitsPerPosition() {
+                return 1;
+            }
+            
+            @Override
+            public long getDataWord(int word) {
+                return readWord(data, word * 8);
+            }
+            
+            @Override
+            public void setDataWords(long[] words) {
+                count = 0;
+                for (int word = 0; word < words.length; ++word) {
+                    writeWord(data, word * 8, words[word]);
+                    count += Long.bitCount(words[word]);
+                }
+            }
+            
             @Override
             public NBTTagCompound serialize() {
                 NBTTagCompound tag = new NBTTagCompound();
@@ -301,23 +500,7 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
             
             public StorageManager2Bits(IWardStorageManagerServer other) {
                 this();
-                if (other.getMaxAllowedOwners() > 0) {
-                    for (int i = 0; i < Math.min(owners.length, other.getOwners().length); ++i) {
-                        owners[i] = other.getOwners()[i];
-                        reverseMap.put(owners[i], (byte) i);
-                    }
-                    
-                    MutableBlockPos pos = new MutableBlockPos(0, 0, 0);
-                    for (int x = 0; x < CHUNK_X_SIZE; ++x) {
-                        for (int z = 0; z < CHUNK_Z_SIZE; ++z) {
-                            pos.setPos(x, 0, z);
-                            for (int y = 0; y < CHUNK_Y_SIZE; ++y) {
-                                pos.setY(y);
-                                setOwner(pos, other.getOwner(pos));
-                            }
-                        }
-                    }
-                }
+                copyOwnersAndWards(other);
             }
             
             @Override
@@ -385,6 +568,15 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                 return 3;
             }
             
+            @Override
+            public int getNumWards() {
+                int total = 0;
+                for (char c : counts)
+                    total += c;
+                
+                return total;
+            }
+            
             @Override
             public UUID getOwner(BlockPos pos) {
                 int index = (pos.getX() & (CHUNK_X_SIZE - 1)) + (pos.getY() & (CHUNK_Y_SIZE - 1)) * CHUNK_X_SIZE + (pos.getZ() & (CHUNK_Z_SIZE - 1)) * CHUNK_X_SIZE * CHUNK_Y_SIZE;
@@ -419,6 +611,25 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                 return owners;
             }
             
+            @Override
+            public int getBitsPerPosition() {
+                return 2;
+            }
+            
+            @Override
+            public long getDataWord(int word) {
+                return readWord(data, word * 8);
+            }
+            
+            @Override
+            public void setDataWords(long[] words) {
+                Arrays.fill(counts, (char) 0);
+                for (int word = 0; word < words.length; ++word) {
+                    writeWord(data, word * 8, words[word]);
+                    countValues(words[word], 2, counts);
+                }
+            }
+            
             @Override
             public NBTTagCompound serialize() {
                 NBTTagCompound tag = new NBTTagCompound();
@@ -475,23 +686,7 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
             
             public StorageManager4Bits(IWardStorageManagerServer other) {
                 this();
-                if (other.getMaxAllowedOwners() > 0) {
-                    for (int i = 0; i < Math.min(owners.length, other.getOwners().length); ++i) {
-                        owners[i] = other.getOwners()[i];
-                        reverseMap.put(owners[i], (byte) i);
-                    }
-                    
-                    MutableBlockPos pos = new MutableBlockPos(0, 0, 0);
-                    for (int x = 0; x < CHUNK_X_SIZE; ++x) {
-                        for (int z = 0; z < CHUNK_Z_SIZE; ++z) {
-                            pos.setPos(x, 0, z);
-                            for (int y = 0; y < CHUNK_Y_SIZE; ++y) {
-                                pos.setY(y);
-                                setOwner(pos, other.getOwner(pos));
-                            }
-                        }
-                    }
-                }
+                copyOwnersAndWards(other);
             }
             
             @Override
@@ -561,6 +756,15 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                 return 15;
             }
             
+            @Override
+            public int getNumWards() {
+                int total = 0;
+                for (char c : counts)
+                    total += c;
+                
+                return total;
+            }
+            
             @Override
             public UUID getOwner(BlockPos pos) {
                 int index = (pos.getX() & (CHUNK_X_SIZE - 1)) + (pos.getY() & (CHUNK_Y_SIZE - 1)) * CHUNK_X_SIZE + (pos.getZ() & (CHUNK_Z_SIZE - 1)) * CHUNK_X_SIZE * CHUNK_Y_SIZE;
@@ -601,6 +805,25 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                 return owners;
             }
             
+            @Override
+            public int getBitsPerPosition() {
+                return 4;
+            }
+            
+            @Override
+            public long getDataWord(int word) {
+                return readWord(data, word * 8);
+            }
+            
+            @Override
+            public void setDataWords(long[] words) {
+                Arrays.fill(counts, (char) 0);
+                for (int word = 0; word < words.length; ++word) {
+                    writeWord(data, word * 8, words[word]);
+                    countValues(words[word], 4, counts);
+                }
+            }
+            
             @Override
             public NBTTagCompound serialize() {
                 NBTTagCompound tag = new NBTTagCompound();
@@ -658,23 +881,7 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
             
             public StorageManagerByte(IWardStorageManagerServer other) {
                 this();
-                if (other.getMaxAllowedOwners() > 0) {
-                    for (int i = 0; i < Math.min(owners.length, other.getOwners().length); ++i) {
-                        owners[i] = other.getOwners()[i];
-                        reverseMap.put(owners[i], (byte) (i - 128));
-                    }
-                    
-                    MutableBlockPos pos = new MutableBlockPos(0, 0, 0);
-                    for (int x = 0; x < CHUNK_X_SIZE; ++x) {
-                        for (int z = 0; z < CHUNK_Z_SIZE; ++z) {
-                            pos.setPos(x, 0, z);
-                            for (int y = 0; y < CHUNK_Y_SIZE; ++y) {
-                                pos.setY(y);
-                                setOwner(pos, other.getOwner(pos));
-                            }
-                        }
-                    }
-                }
+                copyOwnersAndWards(other);
             }
             
             @Override
@@ -740,6 +947,15 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                 return 255;
             }
             
+            @Override
+            public int getNumWards() {
+                int total = 0;
+                for (char c : counts)
+                    total += c;
+                
+                return total;
+            }
+            
             @Override
             public UUID getOwner(BlockPos pos) {
                 int index = (pos.getX() & (CHUNK_X_SIZE - 1)) + (pos.getY() & (CHUNK_Y_SIZE - 1)) * CHUNK_X_SIZE + (pos.getZ() & (CHUNK_Z_SIZE - 1)) * CHUNK_X_SIZE * CHUNK_Y_SIZE;
@@ -769,6 +985,26 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                 return owners;
             }
             
+            @Override
+            public int getBitsPerPosition() {
+                return 8;
+            }
+            
+            @Override
+            public long getDataWord(int word) {
+                // values are stored offset by -128
+                return readWord(data, word * 8) ^ 0x8080808080808080L;
+            }
+            
+            @Override
+            public void setDataWords(long[] words) {
+                Arrays.fill(counts, (char) 0);
+                for (int word = 0; word < words.length; ++word) {
+                    writeWord(data, word * 8, words[word] ^ 0x8080808080808080L);
+                    countValues(words[word], 8, counts);
+                }
+            }
+            
             @Override
             public NBTTagCompound serialize() {
                 NBTTagCompound tag = new NBTTagCompound();
@@ -826,23 +1062,7 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
             
             public StorageManagerShort(IWardStorageManagerServer other) {
                 this();
-                if (other.getMaxAllowedOwners() > 0) {
-                    for (int i = 0; i < Math.min(owners.length, other.getOwners().length); ++i) {
-                        owners[i] = other.getOwners()[i];
-                        reverseMap.put(owners[i], (short) (i - 32768));
-                    }
-                    
-                    MutableBlockPos pos = new MutableBlockPos(0, 0, 0);
-                    for (int x = 0; x < CHUNK_X_SIZE; ++x) {
-                        for (int z = 0; z < CHUNK_Z_SIZE; ++z) {
-                            pos.setPos(x, 0, z);
-                            for (int y = 0; y < CHUNK_Y_SIZE; ++y) {
-                                pos.setY(y);
-                                setOwner(pos, other.getOwner(pos));
-                            }
-                        }
-                    }
-                }
+                copyOwnersAndWards(other);
             }
             
             @Override
@@ -908,6 +1128,15 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                 return 65535;
             }
             
+            @Override
+            public int getNumWards() {
+                int total = 0;
+                for (char c : counts)
+                    total += c;
+                
+                return total;
+            }
+            
             @Override
             public UUID getOwner(BlockPos pos) {
                 int index = (pos.getX() & (CHUNK_X_SIZE - 1)) + (pos.getY() & (CHUNK_Y_SIZE - 1)) * CHUNK_X_SIZE + (pos.getZ() & (CHUNK_Z_SIZE - 1)) * CHUNK_X_SIZE * CHUNK_Y_SIZE;
@@ -937,6 +1166,35 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                 return owners;
             }
             
+            @Override
+            public int getBitsPerPosition() {
+                return 16;
+            }
+            
+            @Override
+            public long getDataWord(int word) {
+                // values are stored offset by -32768
+                long result = 0;
+                for (int i = 3; i >= 0; --i)
+                    result = (result << 16) | ((data[word * 4 + i] + 32768) & 0xFFFF);
+                
+                return result;
+            }
+            
+            @Override
+            public void setDataWords(long[] words) {
+                Arrays.fill(counts, (char) 0);
+                for (int word = 0; word < words.length; ++word) {
+                    long value = words[word];
+                    for (int i = 0; i < 4; ++i) {
+                        data[word * 4 + i] = (short) ((value & 0xFFFF) - 32768);
+                        value >>>= 16;
+                    }
+                    
+                    countValues(words[word], 16, counts);
+                }
+            }
+            
             private byte[] createByteArray() {
                 byte[] dest = new byte[data.length * 2];
                 for (int i = 0; i < data.length; ++i) {
@@ -992,17 +1250,326 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
             
         }
         
+        public static class StorageManagerSparse implements IWardStorageManagerServer {
+            
+            // past this many wards, the 1 bit manager takes up less space
+            public static final int MAX_ENTRIES = CHUNK_DATA_SIZE / 8 / 4;
+            
+            // each entry is the position index shifted up 4 bits, with the owner index + 1 in the low bits
+            // the position index is the highest part, so sorting entries sorts by position as well
+            protected int[] entries;
+            protected int size;
+            protected UUID[] owners;
+            protected Object2ByteOpenHashMap<UUID> reverseMap;
+            protected char[] counts;
+            
+            public StorageManagerSparse() {
+                entries = new int[16];
+                size = 0;
+                owners = new UUID[getMaxAllowedOwners()];
+                Arrays.fill(owners, NIL_UUID);
+                reverseMap = new Object2ByteOpenHashMap<>();
+                counts = new char[getMaxAllowedOwners()];
+            }
+            
+            public StorageManagerSparse(IWardStorageManagerServer other) {
+                this();
+                copyOwnersAndWards(other);
+            }
+            
+            protected int findEntry(int index) {
+                int key = index << 4;
+                int low = 0;
+                int high = size;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (entries[mid] < key)
+                        low = mid + 1;
+                    else
+                        high = mid;
+                }
+                
+                return low;
+            }
+            
+            protected void ensureCapacity(int capacity) {
+                if (entries.length < capacity)
+                    entries = Arrays.copyOf(entries, Math.max(capacity, entries.length * 2));
+            }
+            
+            @Override
+            public byte getStorageID() {
+                return 6;
+            }
+            
+            @Override
+            public int getNumCurrentOwners() {
+                return reverseMap.size();
+            }
+            
+            @Override
+            public void addOwner(UUID owner) {
+                for (int i = 0; i < owners.length; ++i) {
+                    if (owners[i].equals(NIL_UUID)) {
+                        owners[i] = owner;
+                        reverseMap.put(owner, (byte) i);
+                        counts[i] = 0;
+                        return;
+                    }
+                }
+                
+                throw new IndexOutOfBoundsException("Attempted to exceed owner storage capacity");
+            }
+            
+            @Override
+            public boolean isOwner(UUID owner) {
+                return reverseMap.containsKey(owner);
+            }
+            
+            @Override
+            public void removeOwner(UUID owner) {
+                byte id = reverseMap.removeByte(owner);
+                owners[id] = NIL_UUID;
+                counts[id] = 0;
+            }
+            
+            @Override
+            public void removeOwner(UUID owner, boolean clear) {
+                if (clear) {
+                    byte id = reverseMap.getByte(owner);
+                    removeOwner(owner);
+                    int kept = 0;
+                    for (int i = 0; i < size; ++i) {
+                        if ((entries[i] & 15) != id + 1)
+                            entries[kept++] = entries[i];
+                    }
+                    
+                    size = kept;
+                }
+                else
+                    removeOwner(owner);
+            }
+            
+            @Override
+            public void clearAllOwnersAndWards() {
+                entries = new int[16];
+                size = 0;
+                Arrays.fill(owners, NIL_UUID);
+                Arrays.fill(counts, (char) 0);
+                reverseMap.clear();
+            }
+            
+            @Override
+            public int getMaxAllowedOwners() {
+                return 15;
+            }
+            
+            @Override
+            public int getNumWards() {
+                return size;
+            }
+            
+            @Override
+            public boolean canStoreMoreWards() {
+                return size < MAX_ENTRIES;
+            }
+            
+            @Override
+            public UUID getOwner(BlockPos pos) {
+                int index = (pos.getX() & (CHUNK_X_SIZE - 1)) + (pos.getY() & (CHUNK_Y_SIZE - 1)) * CHUNK_X_SIZE + (pos.getZ() & (CHUNK_Z_SIZE - 1)) * CHUNK_X_SIZE * CHUNK_Y_SIZE;
+                int i = findEntry(index);
+                return i < size && entries[i] >>> 4 == index ? owners[(entries[i] & 15) - 1] : NIL_UUID;
+            }
+            
+            @Override
+            public void setOwner(BlockPos pos, UUID owner) {
+                int index = (pos.getX() & (CHUNK_X_SIZE - 1)) + (pos.getY() & (CHUNK_Y_SIZE - 1)) * CHUNK_X_SIZE + (pos.getZ() & (CHUNK_Z_SIZE - 1)) * CHUNK_X_SIZE * CHUNK_Y_SIZE;
+                int toSet = !owner.equals(NIL_UUID) ? reverseMap.getByte(owner) + 1 : 0;
+                int i = findEntry(index);
+                boolean present = i < size && entries[i] >>> 4 == index;
+                int existing = present ? entries[i] & 15 : 0;
+                if (toSet != existing) {
+                    if (toSet != 0) {
+                        ++counts[toSet - 1];
+                        if (!present) {
+                            ensureCapacity(size + 1);
+                            System.arraycopy(entries, i, entries, i + 1, size - i);
+                            ++size;
+                        }
+                        
+                        entries[i] = index << 4 | toSet;
+                    }
+                    else {
+                        System.arraycopy(entries, i + 1, entries, i, size - i - 1);
+                        --size;
+                    }
+                    
+                    if (existing != 0) {
+                        --counts[existing - 1];
+                        if (counts[existing - 1] == 0)
+                            removeOwner(owners[existing - 1], false);
+                    }
+                }
+            }
+            
+            @Override
+            public UUID[] getOwners() {
+                return owners;
+            }
+            
+            @Override
+            public int getBitsPerPosition() {
+                return 4;
+            }
+            
+            @Override
+            public long getDataWord(int word) {
+                long result = 0;
+                int start = word * 16;
+                for (int i = findEntry(start); i < size && entries[i] >>> 4 < start + 16; ++i)
+                    result |= (long) (entries[i] & 15) << ((entries[i] >>> 4) - start) * 4;
+                
+                return result;
+            }
+            
+            @Override
+            public void setDataWords(long[] words) {
+                size = 0;
+                Arrays.fill(counts, (char) 0);
+                for (int word = 0; word < words.length; ++word) {
+                    long value = words[word];
+                    for (int index = word * 16; value != 0; ++index, value >>>= 4) {
+                        int id = (int) (value & 15);
+                        if (id != 0) {
+                            ensureCapacity(size + 1);
+                            entries[size++] = index << 4 | id;
+                            ++counts[id - 1];
+                        }
+                    }
+                }
+            }
+            
+            @Override
+            public void exportClientView(UUID viewer, byte[] dest) {
+                Arrays.fill(dest, (byte) 0);
+                int self = isOwner(viewer) ? reverseMap.getByte(viewer) + 1 : 0;
+                for (int i = 0; i < size; ++i) {
+                    int index = entries[i] >>> 4;
+                    dest[index / 4] |= ((entries[i] & 15) == self ? 1 : 2) << (index % 4 * 2);
+                }
+            }
+            
+            @Override
+            public NBTTagCompound serialize() {
+                NBTTagCompound tag = new NBTTagCompound();
+                int ownerCount = 0;
+                for (int i = 0; i < owners.length; ++i) {
+                    if (!owners[i].equals(NIL_UUID)) {
+                        tag.setUniqueId(Integer.toString(i), owners[i]);
+                        ownerCount = i + 1;
+                    }
+                }
+                
+                tag.setInteger("o", ownerCount);
+                tag.setIntArray("d", Arrays.copyOf(entries, size));
+                return tag;
+            }
+            
+            @Override
+            public void deserialize(NBTTagCompound tag) {
+                int ownerCount = tag.getInteger("o");
+                if (ownerCount > owners.length)
+                    throw new RuntimeException("Invalid ward data");
+                
+                for (int i = 0; i < ownerCount; ++i) {
+                    if (tag.hasUniqueId(Integer.toString(i))) {
+                        owners[i] = tag.getUniqueId(Integer.toString(i));
+                        reverseMap.put(owners[i], (byte) i);
+                    }
+                }
+                
+                int[] loaded = tag.getIntArray("d");
+                if (loaded.length > MAX_ENTRIES)
+                    throw new RuntimeException("Invalid ward data length");
+                
+                entries = Arrays.copyOf(loaded, Math.max(loaded.length, 16));
+                size = loaded.length;
+                for (int i = 0; i < size; ++i) {
+                    int id = entries[i] & 15;
+                    if (id == 0 || owners[id - 1].equals(NIL_UUID) || (i > 0 && entries[i] >>> 4 <= entries[i - 1] >>> 4))
+                        throw new RuntimeException("Invalid ward data");
+                    
+                    ++counts[id - 1];
+                }
+            }
+            
+        }
+        
     }
     
     protected StorageManagersServer.IWardStorageManagerServer manager;
+    // incremented every time the wards change, so cached client views know when they are stale
+    protected int version;
+    protected int cachedVersion;
+    protected NBTTagCompound cachedOtherView;
+    protected HashMap<UUID, NBTTagCompound> cachedOwnerViews;
+    // number of wards in each 16 block tall section, and a mask of the sections with any wards
+    protected char[] sectionCounts;
+    protected int sectionMask;
     
     public WardStorageServer() {
-        manager = new StorageManagersServer.StorageManagerNull();
+        this(new StorageManagersServer.StorageManagerNull());
     }
     
     @VisibleForTesting
     WardStorageServer(StorageManagersServer.IWardStorageManagerServer toSet) {
         manager = toSet;
+        cachedOwnerViews = new HashMap<>();
+        sectionCounts = new char[16];
+        recalculateSections();
+    }
+    
+    protected void markDirty() {
+        ++version;
+    }
+    
+    protected void updateSection(BlockPos pos, boolean hadWard, boolean hasWard) {
+        if (hadWard != hasWard) {
+            int section = (pos.getY() & 255) >> 4;
+            if (hasWard) {
+                if (sectionCounts[section]++ == 0)
+                    sectionMask |= 1 << section;
+            }
+            else if (--sectionCounts[section] == 0)
+                sectionMask &= ~(1 << section);
+        }
+    }
+    
+    protected void recalculateSections() {
+        Arrays.fill(sectionCounts, (char) 0);
+        sectionMask = 0;
+        int bits = manager.getBitsPerPosition();
+        if (bits > 0) {
+            int perWord = 64 / bits;
+            for (int word = 0; word < StorageManagersServer.getNumWords(bits); ++word) {
+                long value = manager.getDataWord(word);
+                if (value != 0) {
+                    // words never cross a section boundary, as 256 positions in a row always share a y section
+                    int section = (word * perWord >> 8) & 15;
+                    sectionCounts[section] += StorageManagersServer.countNonZero(value, bits);
+                    sectionMask |= 1 << section;
+                }
+            }
+        }
+    }
+    
+    @Override
+    public int getWardedSectionMask() {
+        return sectionMask;
+    }
+    
+    public int getVersion() {
+        return version;
     }
     
     @Override
@@ -1022,12 +1589,15 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
     
     @Override
     public boolean hasWard(BlockPos pos) {
-        return !getWard(pos).equals(NIL_UUID);
+        return (sectionMask & (1 << ((pos.getY() & 255) >> 4))) != 0 && !getWard(pos).equals(NIL_UUID);
     }
     
     @Override
     public void clearWard(BlockPos pos) {
+        boolean had = hasWard(pos);
         manager.setOwner(pos, NIL_UUID);
+        updateSection(pos, had, false);
+        markDirty();
     }
     
     @Override
@@ -1037,6 +1607,8 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
             MinecraftForge.EVENT_BUS.post(event);
             if (!event.isCanceled()) {
                 manager.setOwner(pos, NIL_UUID);
+                updateSection(pos, true, false);
+                markDirty();
                 WardSyncManager.markPosForClear(syncTo, pos);
                 MinecraftForge.EVENT_BUS.post(new BlockWardEvent.DewardedServer.Post(syncTo, pos));
             }
@@ -1046,40 +1618,62 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
     @Override
     public void clearAllWards() {
         manager.clearAllOwnersAndWards();
+        Arrays.fill(sectionCounts, (char) 0);
+        sectionMask = 0;
+        markDirty();
     }
     
     @Override
     public void clearAllWards(World syncTo, BlockPos inside) {
         manager.clearAllOwnersAndWards();
+        Arrays.fill(sectionCounts, (char) 0);
+        sectionMask = 0;
+        markDirty();
         WardSyncManager.markChunkForFullSync(syncTo, inside);
     }
     
     protected StorageManagersServer.IWardStorageManagerServer createIncreasedSizeManager() {
         switch (manager.getStorageID()) {
-            case 0: return new StorageManagersServer.StorageManager1Bit(manager);
+            case 0: return new StorageManagersServer.StorageManagerSparse(manager);
             case 1: return new StorageManagersServer.StorageManager2Bits(manager);
             case 2: return new StorageManagersServer.StorageManager4Bits(manager);
             case 3: return new StorageManagersServer.StorageManagerByte(manager);
             case 4: return new StorageManagersServer.StorageManagerShort(manager);
+            case 6: return new StorageManagersServer.StorageManagerByte(manager);
             default: throw new RuntimeException("Invalid ward storage manager growth (other mod interacting?)");
         }
     }
     
+    protected StorageManagersServer.IWardStorageManagerServer createDenseManager() {
+        if (manager.getNumCurrentOwners() <= 1)
+            return new StorageManagersServer.StorageManager1Bit(manager);
+        else if (manager.getNumCurrentOwners() <= 3)
+            return new StorageManagersServer.StorageManager2Bits(manager);
+        else
+            return new StorageManagersServer.StorageManager4Bits(manager);
+    }
+    
     protected void evaluateManagerSizeDecrease() {
         if (manager.getMaxAllowedOwners() != 0 && manager.getNumCurrentOwners() == 0)
             manager = new StorageManagersServer.StorageManagerNull(manager);
-        else if (manager.getMaxAllowedOwners() > 1 && manager.getNumCurrentOwners() <= 1)
-            manager = new StorageManagersServer.StorageManager1Bit(manager);
-        else if (manager.getMaxAllowedOwners() > 3 && manager.getNumCurrentOwners() <= 3)
-            manager = new StorageManagersServer.StorageManager2Bits(manager);
-        else if (manager.getMaxAllowedOwners() > 15 && manager.getNumCurrentOwners() <= 15)
-            manager = new StorageManagersServer.StorageManager4Bits(manager);
-        else if (manager.getMaxAllowedOwners() > 255 && manager.getNumCurrentOwners() <= 255)
-            manager = new StorageManagersServer.StorageManagerByte(manager);
+        else if (manager.getStorageID() != 6) {
+            // only go back to sparse storage well under its limit, so chunks near it don't keep switching
+            if (manager.getNumCurrentOwners() <= 15 && manager.getNumWards() <= StorageManagersServer.StorageManagerSparse.MAX_ENTRIES / 2)
+                manager = new StorageManagersServer.StorageManagerSparse(manager);
+            else if (manager.getMaxAllowedOwners() > 1 && manager.getNumCurrentOwners() <= 1)
+                manager = new StorageManagersServer.StorageManager1Bit(manager);
+            else if (manager.getMaxAllowedOwners() > 3 && manager.getNumCurrentOwners() <= 3)
+                manager = new StorageManagersServer.StorageManager2Bits(manager);
+            else if (manager.getMaxAllowedOwners() > 15 && manager.getNumCurrentOwners() <= 15)
+                manager = new StorageManagersServer.StorageManager4Bits(manager);
+            else if (manager.getMaxAllowedOwners() > 255 && manager.getNumCurrentOwners() <= 255)
+                manager = new StorageManagersServer.StorageManagerByte(manager);
+        }
     }
     
     @Override
     public void setWard(BlockPos pos, UUID owner) {
+        boolean had = hasWard(pos);
         if (!manager.isOwner(owner)) {
             if (manager.getNumCurrentOwners() == manager.getMaxAllowedOwners())
                 manager = createIncreasedSizeManager();
@@ -1087,12 +1681,18 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
             manager.addOwner(owner);
         }
         
+        if (!manager.canStoreMoreWards())
+            manager = createDenseManager();
+        
         manager.setOwner(pos, owner);
+        updateSection(pos, had, !owner.equals(NIL_UUID));
+        markDirty();
     }
     
     @Override
     public void setWard(BlockPos pos, UUID owner, World syncTo) {
-        if (!getWard(pos).equals(owner)) {
+        UUID old = getWard(pos);
+        if (!old.equals(owner)) {
             BlockWardEvent.WardedServer event = new BlockWardEvent.WardedServer.Pre(syncTo, pos, owner);
             MinecraftForge.EVENT_BUS.post(event);
             if (!event.isCanceled()) {
@@ -1103,7 +1703,12 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                     manager.addOwner(owner);
                 }
                 
+                if (!manager.canStoreMoreWards())
+                    manager = createDenseManager();
+                
                 manager.setOwner(pos, owner);
+                updateSection(pos, !old.equals(NIL_UUID), !owner.equals(NIL_UUID));
+                markDirty();
                 WardSyncManager.markPosForNewOwner(syncTo, pos, owner);
                 MinecraftForge.EVENT_BUS.post(new BlockWardEvent.WardedServer.Post(syncTo, pos, owner));
             }
@@ -1112,8 +1717,11 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
     
     @Override
     public void removeOwner(UUID owner) {
-        if (manager.isOwner(owner))
+        if (manager.isOwner(owner)) {
             manager.removeOwner(owner, true);
+            recalculateSections();
+            markDirty();
+        }
     }
     
     @Override
@@ -1123,33 +1731,36 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
     
     @Override
     public @Nullable NBTTagCompound fullSyncToClient(Chunk chunk, UUID player, boolean force) {
-        if (force || manager.getNumCurrentOwners() > 0) {
-            NBTTagCompound tag = new NBTTagCompound();
-            byte[] data = new byte[StorageManagersServer.CHUNK_DATA_SIZE / 4];
-            MutableBlockPos pos = new MutableBlockPos(0, 0, 0);
-            for (int x = 0; x < StorageManagersServer.CHUNK_X_SIZE; ++x) {
-                for (int z = 0; z < StorageManagersServer.CHUNK_Z_SIZE; ++z) {
-                    pos.setPos(x, 0, z);
-                    for (int y = 0; y < StorageManagersServer.CHUNK_Y_SIZE; ++y) {
-                        pos.setY(y);
-                        byte toSet = 0;
-                        UUID owner = manager.getOwner(pos);
-                        if (owner.equals(player))
-                            toSet = 1;
-                        else if (!owner.equals(IWardStorageServer.NIL_UUID))
-                            toSet = 2;
-                        
-                        int index = (pos.getX() & 15) + (pos.getY() & 255) * StorageManagersServer.CHUNK_X_SIZE + (pos.getZ() & 15) * 
-                                StorageManagersServer.CHUNK_X_SIZE * StorageManagersServer.CHUNK_Y_SIZE;
-                        data[index / 4] = (toSet & 1) != 0 ? (byte) (data[index / 4] | (1 << (index % 4 * 2))) : 
-                            (byte) (data[index / 4] & ~(1 << (index % 4 * 2)));
-                        data[index / 4] = (toSet & 2) != 0 ? (byte) (data[index / 4] | (2 << (index % 4 * 2))) : 
-                            (byte) (data[index / 4] & ~(2 << (index % 4 * 2)));
-                    }
-                }
+        // every ward shows up in every player's view, as either their own or someone else's,
+        // so the only view with nothing in it is one of a storage without any wards
+        if (manager.getNumCurrentOwners() > 0 && sectionMask != 0) {
+            if (cachedVersion != version) {
+                cachedOtherView = null;
+                cachedOwnerViews.clear();
+                cachedVersion = version;
+            }
+            
+            // everyone that does not own a ward here sees the exact same thing
+            boolean isOwner = manager.isOwner(player);
+            NBTTagCompound tag = isOwner ? cachedOwnerViews.get(player) : cachedOtherView;
+            if (tag == null) {
+                tag = new NBTTagCompound();
+                byte[] data = new byte[StorageManagersServer.CHUNK_DATA_SIZE / 4];
+                manager.exportClientView(player, data);
+                tag.setByteArray("d", data);
+                tag.setInteger("x", chunk.x);
+                tag.setInteger("z", chunk.z);
+                if (isOwner)
+                    cachedOwnerViews.put(player, tag);
+                else
+                    cachedOtherView = tag;
             }
             
-            tag.setByteArray("d", data);
+            return tag;
+        }
+        else if (force) {
+            // no ward data means the client can just drop whatever it has
+            NBTTagCompound tag = new NBTTagCompound();
             tag.setInteger("x", chunk.x);
             tag.setInteger("z", chunk.z);
             return tag;
@@ -1158,6 +1769,17 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
         return null;
     }
     
+    @Override
+    public void releaseClientView(UUID player, boolean lastViewer) {
+        // the cached views are 16 KB each, so only keep them around while someone could need them
+        if (lastViewer) {
+            cachedOtherView = null;
+            cachedOwnerViews.clear();
+        }
+        else
+            cachedOwnerViews.remove(player);
+    }
+    
     @Override
     public NBTTagCompound serializeNBT() {
         evaluateManagerSizeDecrease();
@@ -1195,10 +1817,16 @@ public class WardStorageServer implements IWardStorageServer, INBTSerializable<N
                 manager = new StorageManagersServer.StorageManagerShort();
                 break;
             }
+            case 6: {
+                manager = new StorageManagersServer.StorageManagerSparse();
+                break;
+            }
             default: throw new RuntimeException("Invalid chunk ward storage manager ID");
         }
         
         manager.deserialize(nbt.getCompoundTag("d"));
+        recalculateSections();
+        markDirty();
     }
     
 }
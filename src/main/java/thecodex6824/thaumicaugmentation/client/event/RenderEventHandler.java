@@ -21,16 +21,12 @@
 package thecodex6824.thaumicaugmentation.client.event;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
-import javax.vecmath.Vector4d;
 
 import org.lwjgl.opengl.GL11;
 
@@ -46,6 +42,7 @@ import net.minecraft.client.multiplayer.WorldClient;
 import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.culling.Frustum;
 import net.minecraft.client.renderer.texture.TextureMap;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.entity.Entity;
@@ -53,7 +50,6 @@ import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.EnumAction;
 import net.minecraft.item.ItemStack;
-import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.EnumHandSide;
 import net.minecraft.util.NonNullList;
@@ -64,6 +60,7 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraftforge.client.event.DrawBlockHighlightEvent;
 import net.minecraftforge.client.event.RenderLivingEvent;
 import net.minecraftforge.client.event.RenderWorldLastEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
@@ -85,6 +82,7 @@ import thecodex6824.thaumicaugmentation.api.item.IMorphicTool;
 import thecodex6824.thaumicaugmentation.api.util.DimensionalBlockPos;
 import thecodex6824.thaumicaugmentation.api.util.RaytraceHelper;
 import thecodex6824.thaumicaugmentation.client.fx.FXImpulseBeam;
+import thecodex6824.thaumicaugmentation.client.renderer.ImpetusBeamRenderer;
 import thecodex6824.thaumicaugmentation.client.renderer.texture.TATextures;
 import thecodex6824.thaumicaugmentation.client.shader.TAShaderManager;
 import thecodex6824.thaumicaugmentation.client.shader.TAShaders;
@@ -307,90 +305,6 @@ public class RenderEventHandler {
         }
     }
     
-    private static Vec3d rotate(Vec3d input, double angle, Vec3d axis) {
-        double sin = Math.sin(angle * 0.5);
-        Vector4d vec = new Vector4d(axis.x * sin, axis.y * sin, axis.z * sin, Math.cos(angle * 0.5));
-        double d = -vec.x * input.x - vec.y * input.y - vec.z * input.z;
-        double d1 = vec.w * input.x + vec.y * input.z - vec.z * input.y;
-        double d2 = vec.w * input.y - vec.x * input.z + vec.z * input.x;
-        double d3 = vec.w * input.z + vec.x * input.y - vec.y * input.x;
-        return new Vec3d(d1 * vec.w - d * vec.x - d2 * vec.z + d3 * vec.y,
-                d2 * vec.w - d * vec.y + d1 * vec.z - d3 * vec.x,
-                d3 * vec.w - d * vec.z - d1 * vec.y + d2 * vec.x);
-    }
-    
-    private static void renderNormalBeam(Entity rv, float partial, Vec3d from, Vec3d to) {
-        Vec3d se = to.subtract(from);
-        Vec3d axis = (se.z == 0.0 ? new Vec3d(se.y, -se.x, 0.0) : new Vec3d(0.0, se.z, -se.y)).normalize();
-        double dist = from.distanceTo(to);
-        double offset = rv.ticksExisted % 100 / 100.0 + partial / 100.0;
-        GlStateManager.enableDepth();
-        GlStateManager.depthMask(false);
-        GlStateManager.enableBlend();
-        GlStateManager.disableCull();
-        GlStateManager.pushMatrix();
-        Minecraft.getMinecraft().renderEngine.bindTexture(TATextures.BEAM);
-        Tessellator t = Tessellator.getInstance();
-        BufferBuilder buffer = t.getBuffer();
-        double angle = 0;
-        for (int i = 0; i < 4; ++i) {
-            Vec3d perpendicular = rotate(axis, angle, se).normalize().scale(0.0625);
-            Vec3d p1 = from.add(perpendicular);
-            Vec3d p2 = to.add(perpendicular);
-            Vec3d p3 = to.subtract(perpendicular);
-            Vec3d p4 = from.subtract(perpendicular);
-            
-            buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX_COLOR);
-            buffer.pos(p1.x, p1.y, p1.z).tex(1.0 - offset, 0).color(0.4F, 0.4F, 0.5F, 0.65F).endVertex();
-            buffer.pos(p2.x, p2.y, p2.z).tex(dist - offset, 0).color(0.4F, 0.4F, 0.5F, 0.65F).endVertex();
-            buffer.pos(p3.x, p3.y, p3.z).tex(dist - offset, 1.0).color(0.4F, 0.4F, 0.5F, 0.65F).endVertex();
-            buffer.pos(p4.x, p4.y, p4.z).tex(1.0 - offset, 1.0).color(0.4F, 0.4F, 0.5F, 0.65F).endVertex();
-            t.draw();
-            angle += Math.PI / 24;
-        }
-        
-        GlStateManager.enableCull();
-        GlStateManager.disableBlend();
-        GlStateManager.depthMask(true);
-        GlStateManager.popMatrix();
-    }
-    
-    private static void renderStrongLaser(Entity rv, float partial, Vec3d eyePos, Vec3d from, Vec3d to, double factor) {
-        Vec3d se = to.subtract(from);
-        Vec3d axis = (se.z == 0.0 ? new Vec3d(se.y, -se.x, 0.0) : new Vec3d(0.0, se.z, -se.y)).normalize();
-        double dist = from.distanceTo(to);
-        double offset = rv.ticksExisted % 100 / 100.0 + partial / 100.0;
-        GlStateManager.enableDepth();
-        GlStateManager.depthMask(false);
-        GlStateManager.enableBlend();
-        GlStateManager.disableCull();
-        GlStateManager.pushMatrix();
-        Minecraft.getMinecraft().renderEngine.bindTexture(TATextures.LASER);
-        Tessellator t = Tessellator.getInstance();
-        BufferBuilder buffer = t.getBuffer();
-        double angle = 0;//offset * Math.PI * 2;
-        for (int i = 0; i < 4; ++i) {
-            Vec3d perpendicular = rotate(axis, angle, se).normalize().scale(0.4275);
-            Vec3d p1 = from.add(perpendicular);
-            Vec3d p2 = to.add(perpendicular);
-            Vec3d p3 = to.subtract(perpendicular);
-            Vec3d p4 = from.subtract(perpendicular);
-            
-            buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX_COLOR);
-            buffer.pos(p1.x, p1.y, p1.z).tex(1.0 - offset, 0).color(0.35F, 0.35F, 0.5F, (float) factor).endVertex();
-            buffer.pos(p2.x, p2.y, p2.z).tex(dist - offset, 0).color(0.35F, 0.35F, 0.5F, (float) factor).endVertex();
-            buffer.pos(p3.x, p3.y, p3.z).tex(dist - offset, 1.0).color(0.35F, 0.35F, 0.5F, (float) factor).endVertex();
-            buffer.pos(p4.x, p4.y, p4.z).tex(1.0 - offset, 1.0).color(0.35F, 0.35F, 0.5F, (float) factor).endVertex();
-            t.draw();
-            angle += Math.PI / 4;
-        }
-        
-        GlStateManager.enableCull();
-        GlStateManager.disableBlend();
-        GlStateManager.depthMask(true);
-        GlStateManager.popMatrix();
-    }
-    
     private static void renderCubeFrame(Entity rv, float partial, Vec3d eyePos, BlockPos blockPosition, AxisAlignedBB cube,
             float r, float g, float b, float a) {
         
@@ -426,6 +340,12 @@ public class RenderEventHandler {
         GlStateManager.depthMask(true);
     }
     
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld().isRemote)
+            ImpetusBeamRenderer.onWorldUnload(event.getWorld());
+    }
+    
     public static void onRenderEntities(int pass) {
         if (pass == 0) {
             float pt = ThaumicAugmentation.proxy.isSingleplayer() && Minecraft.getMinecraft().isGamePaused() ?
@@ -499,31 +419,15 @@ public class RenderEventHandler {
             Minecraft.getMinecraft().player;
         Vec3d eyePos = rv.getPositionEyes(event.getPartialTicks());
         WorldClient world = Minecraft.getMinecraft().world;
+        double rX = rv.lastTickPosX + (rv.posX - rv.lastTickPosX) * event.getPartialTicks();
+        double rY = rv.lastTickPosY + (rv.posY - rv.lastTickPosY) * event.getPartialTicks();
+        double rZ = rv.lastTickPosZ + (rv.posZ - rv.lastTickPosZ) * event.getPartialTicks();
+        // the clipping helper reads the current matrices, so this has to happen before the translation below
+        Frustum frustum = new Frustum();
+        frustum.setPosition(rX, rY, rZ);
         GlStateManager.pushMatrix();
-        GlStateManager.translate(-(rv.lastTickPosX + (rv.posX - rv.lastTickPosX) * event.getPartialTicks()),
-                -(rv.lastTickPosY + (rv.posY - rv.lastTickPosY) * event.getPartialTicks()), -(rv.lastTickPosZ + (rv.posZ - rv.lastTickPosZ) * event.getPartialTicks()));
-        Collection<IImpetusNode> nodes = ImpetusRenderingManager.getAllRenderableNodes(world.provider.getDimension());
-        if (!nodes.isEmpty()) {
-            List<IImpetusNode> renderNodes = nodes.stream()
-                    .filter(node -> {
-                        if (world.isBlockLoaded(node.getLocation().getPos())) {
-                            TileEntity tile = world.getTileEntity(node.getLocation().getPos());
-                            return tile != null && tile.hasCapability(CapabilityImpetusNode.IMPETUS_NODE, null) && eyePos.squareDistanceTo(new Vec3d(node.getLocation().getPos())) < 128 * 128;   
-                        }
-                        
-                        return false;
-                    })
-                    .sorted(Comparator.<IImpetusNode>comparingDouble(node -> eyePos.squareDistanceTo(new Vec3d(node.getLocation().getPos()))).reversed())
-                    .collect(Collectors.toList());
-            
-            for (IImpetusNode node : renderNodes) {
-                for (IImpetusNode out : node.getOutputs()) {
-                    if (node.shouldPhysicalBeamLinkTo(out) && out.shouldPhysicalBeamLinkTo(node))
-                        renderNormalBeam(rv, event.getPartialTicks(), node.getBeamEndpoint(), out.getBeamEndpoint());
-                }
-            }
-        }
-        
+        GlStateManager.translate(-rX, -rY, -rZ);
+        ImpetusBeamRenderer.renderLinks(world, rv, event.getPartialTicks(), eyePos, frustum);
         long time = world.getTotalWorldTime();
         Iterator<Object2LongOpenHashMap.Entry<DimensionalBlockPos[]>> iterator = TRANSACTIONS.object2LongEntrySet().iterator();
         while (iterator.hasNext()) {
@@ -537,11 +441,13 @@ public class RenderEventHandler {
                     IImpetusNode start = ImpetusRenderingManager.findNodeByPosition(array[i]);
                     IImpetusNode end = ImpetusRenderingManager.findNodeByPosition(array[i + 1]);
                     if (start != null && end != null && start.shouldPhysicalBeamLinkTo(end) && end.shouldPhysicalBeamLinkTo(start))
-                        renderStrongLaser(rv, event.getPartialTicks(), eyePos, start.getBeamEndpoint(), end.getBeamEndpoint(), 1.0 - passed / TRANSACTION_DURATION);
+                        ImpetusBeamRenderer.addTransaction(eyePos, start.getBeamEndpoint(), end.getBeamEndpoint(), 1.0 - passed / TRANSACTION_DURATION);
                 }
             }
         }
         
+        ImpetusBeamRenderer.renderTransactions(rv, event.getPartialTicks(), frustum);
+        
         EntityPlayer player = Minecraft.getMinecraft().player;
         for (ItemStack stack : player.getHeldEquipment()) {
             IImpetusLinker linker = stack.getCapability(CapabilityImpetusLinker.IMPETUS_LINKER, null);
@@ -0,0 +1,339 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.client.renderer;
+
+import java.util.ArrayList;
+
+import javax.annotation.Nullable;
+import javax.vecmath.Vector4d;
+
+import org.lwjgl.opengl.GL11;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.WorldClient;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.culling.ICamera;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexBuffer;
+import net.minecraft.entity.Entity;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import thecodex6824.thaumicaugmentation.api.client.ImpetusRenderingManager;
+import thecodex6824.thaumicaugmentation.api.impetus.node.CapabilityImpetusNode;
+import thecodex6824.thaumicaugmentation.api.impetus.node.IImpetusNode;
+import thecodex6824.thaumicaugmentation.client.renderer.texture.TATextures;
+
+public final class ImpetusBeamRenderer {
+    
+    private static final double BEAM_RENDER_DISTANCE = 128.0;
+    private static final double BEAM_RESORT_DISTANCE = 2.0;
+    private static final int BEAM_REFRESH_INTERVAL = 20;
+    // 4 quads per beam
+    private static final int VERTICES_PER_BEAM = 16;
+    
+    private static class Beam {
+        
+        public final Vec3d from;
+        public final Vec3d to;
+        public final AxisAlignedBB bounds;
+        public final double distanceSq;
+        public final float alpha;
+        
+        public Beam(Vec3d from, Vec3d to, Vec3d eyePos, float alpha) {
+            this.from = from;
+            this.to = to;
+            bounds = new AxisAlignedBB(from.x, from.y, from.z, to.x, to.y, to.z).grow(0.5);
+            distanceSq = eyePos.squareDistanceTo((from.x + to.x) / 2.0, (from.y + to.y) / 2.0, (from.z + to.z) / 2.0);
+            this.alpha = alpha;
+        }
+        
+        public boolean isSameBeam(Beam other) {
+            return from.equals(other.from) && to.equals(other.to);
+        }
+        
+    }
+    
+    // links within range of the camera, sorted back to front
+    // these are uploaded to a vertex buffer and only rebuilt when the links change or the camera moves enough to need a resort
+    private static ArrayList<Beam> links = new ArrayList<>();
+    private static ArrayList<Beam> newLinks = new ArrayList<>();
+    private static final ArrayList<IImpetusNode> NEARBY_NODES = new ArrayList<>();
+    private static final ArrayList<IImpetusNode> NODE_OUTPUTS = new ArrayList<>();
+    @Nullable
+    private static VertexBuffer linkBuffer = null;
+    // only used to build the vertex data before it is uploaded, but kept around so it is not reallocated every time
+    @Nullable
+    private static BufferBuilder linkUploadBuffer = null;
+    private static boolean linkBufferDirty = true;
+    @Nullable
+    private static WorldClient linkWorld = null;
+    private static int linkVersion = 0;
+    private static long linkTime = 0;
+    private static Vec3d linkEyePos = Vec3d.ZERO;
+    // vertices are stored relative to this to avoid float precision issues far from the origin
+    private static Vec3d linkOrigin = Vec3d.ZERO;
+    
+    // transactions change every frame, so they get put in the tessellator's buffer instead
+    private static final ArrayList<Beam> TRANSACTIONS = new ArrayList<>();
+    
+    private ImpetusBeamRenderer() {}
+    
+    private static Vec3d rotate(Vec3d input, double angle, Vec3d axis) {
+        double sin = Math.sin(angle * 0.5);
+        Vector4d vec = new Vector4d(axis.x * sin, axis.y * sin, axis.z * sin, Math.cos(angle * 0.5));
+        double d = -vec.x * input.x - vec.y * input.y - vec.z * input.z;
+        double d1 = vec.w * input.x + vec.y * input.z - vec.z * input.y;
+        double d2 = vec.w * input.y - vec.x * input.z + vec.z * input.x;
+        double d3 = vec.w * input.z + vec.x * input.y - vec.y * input.x;
+        return new Vec3d(d1 * vec.w - d * vec.x - d2 * vec.z + d3 * vec.y,
+                d2 * vec.w - d * vec.y + d1 * vec.z - d3 * vec.x,
+                d3 * vec.w - d * vec.z - d1 * vec.y + d2 * vec.x);
+    }
+    
+    // the texture scrolling is done with the texture matrix, so the same vertices can be used every frame
+    private static void addBeamVertices(BufferBuilder buffer, Vec3d origin, Vec3d from, Vec3d to, double width, double angleStep,
+            float r, float g, float b, float a) {
+        
+        Vec3d se = to.subtract(from);
+        Vec3d axis = (se.z == 0.0 ? new Vec3d(se.y, -se.x, 0.0) : new Vec3d(0.0, se.z, -se.y)).normalize();
+        double dist = from.distanceTo(to);
+        double fX = from.x - origin.x, fY = from.y - origin.y, fZ = from.z - origin.z;
+        double tX = to.x - origin.x, tY = to.y - origin.y, tZ = to.z - origin.z;
+        double angle = 0;
+        for (int i = 0; i < 4; ++i) {
+            Vec3d perpendicular = rotate(axis, angle, se).normalize().scale(width);
+            buffer.pos(fX + perpendicular.x, fY + perpendicular.y, fZ + perpendicular.z).tex(1.0, 0).color(r, g, b, a).endVertex();
+            buffer.pos(tX + perpendicular.x, tY + perpendicular.y, tZ + perpendicular.z).tex(dist, 0).color(r, g, b, a).endVertex();
+            buffer.pos(tX - perpendicular.x, tY - perpendicular.y, tZ - perpendicular.z).tex(dist, 1.0).color(r, g, b, a).endVertex();
+            buffer.pos(fX - perpendicular.x, fY - perpendicular.y, fZ - perpendicular.z).tex(1.0, 1.0).color(r, g, b, a).endVertex();
+            angle += angleStep;
+        }
+    }
+    
+    private static void addLinkVertices(BufferBuilder buffer, Beam beam) {
+        addBeamVertices(buffer, linkOrigin, beam.from, beam.to, 0.0625, Math.PI / 24, 0.4F, 0.4F, 0.5F, 0.65F);
+    }
+    
+    private static void addTransactionVertices(BufferBuilder buffer, Beam beam) {
+        addBeamVertices(buffer, linkOrigin, beam.from, beam.to, 0.4275, Math.PI / 4, 0.35F, 0.35F, 0.5F, beam.alpha);
+    }
+    
+    private static void updateLinks(WorldClient world, Vec3d eyePos) {
+        newLinks.clear();
+        ImpetusRenderingManager.getRenderableNodesInRange(world.provider.getDimension(), eyePos.x, eyePos.z, BEAM_RENDER_DISTANCE, NEARBY_NODES);
+        for (IImpetusNode node : NEARBY_NODES) {
+            BlockPos pos = node.getLocation().getPos();
+            if (pos.distanceSq(eyePos.x, eyePos.y, eyePos.z) < BEAM_RENDER_DISTANCE * BEAM_RENDER_DISTANCE && world.isBlockLoaded(pos)) {
+                TileEntity tile = world.getTileEntity(pos);
+                if (tile != null && tile.hasCapability(CapabilityImpetusNode.IMPETUS_NODE, null)) {
+                    node.forEachOutput(NODE_OUTPUTS, ArrayList::add);
+                    for (int i = 0; i < NODE_OUTPUTS.size(); ++i) {
+                        IImpetusNode out = NODE_OUTPUTS.get(i);
+                        if (node.shouldPhysicalBeamLinkTo(out) && out.shouldPhysicalBeamLinkTo(node))
+                            newLinks.add(new Beam(node.getBeamEndpoint(), out.getBeamEndpoint(), eyePos, 1.0F));
+                    }
+                    
+                    NODE_OUTPUTS.clear();
+                }
+            }
+        }
+        
+        NEARBY_NODES.clear();
+        newLinks.sort((b1, b2) -> Double.compare(b2.distanceSq, b1.distanceSq));
+        boolean changed = newLinks.size() != links.size();
+        for (int i = 0; i < newLinks.size() && !changed; ++i)
+            changed = !newLinks.get(i).isSameBeam(links.get(i));
+        
+        if (changed) {
+            ArrayList<Beam> temp = links;
+            links = newLinks;
+            newLinks = temp;
+            linkOrigin = new Vec3d(Math.floor(eyePos.x), Math.floor(eyePos.y), Math.floor(eyePos.z));
+            linkBufferDirty = true;
+        }
+        
+        newLinks.clear();
+        linkWorld = world;
+        linkVersion = ImpetusRenderingManager.getVersion();
+        linkTime = world.getTotalWorldTime();
+        linkEyePos = eyePos;
+    }
+    
+    private static void uploadLinks() {
+        if (linkBuffer == null)
+            linkBuffer = new VertexBuffer(DefaultVertexFormats.POSITION_TEX_COLOR);
+        
+        // the builder grows itself if there are more links than last time
+        if (linkUploadBuffer == null)
+            linkUploadBuffer = new BufferBuilder(links.size() * VERTICES_PER_BEAM * DefaultVertexFormats.POSITION_TEX_COLOR.getSize() / 4 + 16);
+        
+        BufferBuilder buffer = linkUploadBuffer;
+        buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX_COLOR);
+        for (Beam beam : links)
+            addLinkVertices(buffer, beam);
+        
+        buffer.finishDrawing();
+        buffer.reset();
+        linkBuffer.bufferData(buffer.getByteBuffer());
+        linkBufferDirty = false;
+    }
+    
+    private static void drawLinkBuffer(ICamera camera) {
+        linkBuffer.bindBuffer();
+        GlStateManager.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+        GlStateManager.glVertexPointer(3, GL11.GL_FLOAT, 24, 0);
+        OpenGlHelper.setClientActiveTexture(OpenGlHelper.defaultTexUnit);
+        GlStateManager.glEnableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        GlStateManager.glTexCoordPointer(2, GL11.GL_FLOAT, 24, 12);
+        GlStateManager.glEnableClientState(GL11.GL_COLOR_ARRAY);
+        GlStateManager.glColorPointer(4, GL11.GL_UNSIGNED_BYTE, 24, 20);
+        // links are in a fixed order in the buffer, so each run of visible links is drawn with one call
+        int start = -1;
+        for (int i = 0; i < links.size(); ++i) {
+            boolean visible = camera.isBoundingBoxInFrustum(links.get(i).bounds);
+            if (visible && start == -1)
+                start = i;
+            else if (!visible && start != -1) {
+                GlStateManager.glDrawArrays(GL11.GL_QUADS, start * VERTICES_PER_BEAM, (i - start) * VERTICES_PER_BEAM);
+                start = -1;
+            }
+        }
+        
+        if (start != -1)
+            GlStateManager.glDrawArrays(GL11.GL_QUADS, start * VERTICES_PER_BEAM, (links.size() - start) * VERTICES_PER_BEAM);
+        
+        linkBuffer.unbindBuffer();
+        GlStateManager.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+        GlStateManager.glDisableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        GlStateManager.glDisableClientState(GL11.GL_COLOR_ARRAY);
+        GlStateManager.resetColor();
+    }
+    
+    private static void setupState(Entity rv, float partial, ResourceLocation texture) {
+        double offset = rv.ticksExisted % 100 / 100.0 + partial / 100.0;
+        GlStateManager.enableDepth();
+        GlStateManager.depthMask(false);
+        GlStateManager.enableBlend();
+        GlStateManager.disableCull();
+        Minecraft.getMinecraft().renderEngine.bindTexture(texture);
+        GlStateManager.matrixMode(GL11.GL_TEXTURE);
+        GlStateManager.pushMatrix();
+        GlStateManager.translate(-offset, 0.0, 0.0);
+        GlStateManager.matrixMode(GL11.GL_MODELVIEW);
+        GlStateManager.pushMatrix();
+        GlStateManager.translate(linkOrigin.x, linkOrigin.y, linkOrigin.z);
+    }
+    
+    private static void cleanupState() {
+        GlStateManager.popMatrix();
+        GlStateManager.matrixMode(GL11.GL_TEXTURE);
+        GlStateManager.popMatrix();
+        GlStateManager.matrixMode(GL11.GL_MODELVIEW);
+        GlStateManager.enableCull();
+        GlStateManager.disableBlend();
+        GlStateManager.depthMask(true);
+    }
+    
+    /**
+     * Renders the beams between all linked impetus nodes near the camera. This expects the modelview matrix
+     * to already be translated by the negative camera position.
+     */
+    public static void renderLinks(WorldClient world, Entity rv, float partial, Vec3d eyePos, ICamera camera) {
+        long time = world.getTotalWorldTime();
+        if (world != linkWorld || ImpetusRenderingManager.getVersion() != linkVersion || time - linkTime >= BEAM_REFRESH_INTERVAL ||
+                time < linkTime || eyePos.squareDistanceTo(linkEyePos) > BEAM_RESORT_DISTANCE * BEAM_RESORT_DISTANCE) {
+            
+            updateLinks(world, eyePos);
+        }
+        
+        if (!links.isEmpty()) {
+            if (OpenGlHelper.useVbo()) {
+                if (linkBufferDirty)
+                    uploadLinks();
+                
+                setupState(rv, partial, TATextures.BEAM);
+                drawLinkBuffer(camera);
+                cleanupState();
+            }
+            else {
+                // without vbos the vertices have to be sent every frame anyway, so skip the ones that can't be seen
+                setupState(rv, partial, TATextures.BEAM);
+                Tessellator t = Tessellator.getInstance();
+                BufferBuilder buffer = t.getBuffer();
+                buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX_COLOR);
+                for (Beam beam : links) {
+                    if (camera.isBoundingBoxInFrustum(beam.bounds))
+                        addLinkVertices(buffer, beam);
+                }
+                
+                t.draw();
+                cleanupState();
+            }
+        }
+    }
+    
+    public static void addTransaction(Vec3d eyePos, Vec3d from, Vec3d to, double factor) {
+        TRANSACTIONS.add(new Beam(from, to, eyePos, (float) factor));
+    }
+    
+    /**
+     * Renders all transactions added with {@link #addTransaction} since the last call to this method.
+     * This expects the modelview matrix to already be translated by the negative camera position.
+     */
+    public static void renderTransactions(Entity rv, float partial, ICamera camera) {
+        if (!TRANSACTIONS.isEmpty()) {
+            TRANSACTIONS.sort((b1, b2) -> Double.compare(b2.distanceSq, b1.distanceSq));
+            setupState(rv, partial, TATextures.LASER);
+            Tessellator t = Tessellator.getInstance();
+            BufferBuilder buffer = t.getBuffer();
+            buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX_COLOR);
+            for (Beam beam : TRANSACTIONS) {
+                if (camera.isBoundingBoxInFrustum(beam.bounds))
+                    addTransactionVertices(buffer, beam);
+            }
+            
+            t.draw();
+            cleanupState();
+            TRANSACTIONS.clear();
+        }
+    }
+    
+    public static void onWorldUnload(World world) {
+        if (world == linkWorld) {
+            links.clear();
+            linkWorld = null;
+            if (linkBuffer != null) {
+                linkBuffer.deleteGlBuffers();
+                linkBuffer = null;
+            }
+            
+            linkBufferDirty = true;
+        }
+    }
+    
+}
@@ -595,6 +595,17 @@ public final class TAConfigHolder {
         @Comment("Allows rift seeds to create Flux Rifts, even if Thaumcraft's wuss mode is enabled.")
         public boolean allowWussRiftSeed = false;
         
+        @Name("TerraformerColumnsPerOperation")
+        @Comment({
+            "The maximum number of columns the Arcane Terraformer will convert each operation.",
+            "Values above 1 make the terraformer work out all the columns it needs to change when it starts,",
+            "and pay the impetus, essentia, and vis costs for several columns at once.",
+            "The cost per column stays the same, but the terraformer will also pull in essentia faster to keep up.",
+            "This is a server-side setting."
+        })
+        @RangeInt(min = 1, max = 16)
+        public int terraformerColumnsPerOperation = 1;
+        
         @Name("MovementCompat")
         @Comment({
             "Makes a few changes to how certain movement, like step height bonuses, are applied.",
@@ -682,6 +693,16 @@ public final class TAConfigHolder {
         })
         public boolean fracturesAlwaysTeleport = false;
         
+        @Name("QueuedWorldGenTickBudget")
+        @Comment({
+            "The maximum time, in milliseconds, that can be spent each tick on world generation that had to be delayed.",
+            "The same budget applies separately to each world for regenerating auras after terraforming.",
+            "At least one queued task will always run each tick if any are waiting, even if it goes over this budget.",
+            "This is a server-side setting."
+        })
+        @RangeDouble(min = 0.0F)
+        public double worldGenTickBudget = 5.0;
+        
         @Name("DisableEmptinessDimension")
         @Comment({
             "Completely disables the Emptiness dimension, *including* all fracture generation.",
@@ -838,6 +859,7 @@ public final class TAConfigHolder {
         TAConfig.fractureGenChance.setValue(world.fractureGenChance, side);
         TAConfig.fractureLocatorUpdateInterval.setValue(world.fractureLocatorUpdateInterval, side);
         TAConfig.fracturesAlwaysTeleport.setValue(world.fracturesAlwaysTeleport, side);
+        TAConfig.worldGenTickBudget.setValue(world.worldGenTickBudget, side);
         
         TAConfig.gauntletCastAnimation.setValue(client.gauntletCastAnimation, side);
         
@@ -849,6 +871,7 @@ public final class TAConfigHolder {
         TAConfig.impetusGeneratorBufferSize.setValue(gameplay.impetus.impetusGenerator.bufferSize, side);
         
         TAConfig.allowWussRiftSeed.setValue(gameplay.allowWussRiftSeed, side);
+        TAConfig.terraformerColumnsPerOperation.setValue(gameplay.terraformerColumnsPerOperation, side);
         
         TAConfig.cannonBeamDamage.setValue(gameplay.impetus.cannon.beamDamage, side);
         TAConfig.cannonBeamCostInitial.setValue((long) gameplay.impetus.cannon.beamCostInitial, side);
@@ -994,6 +1017,7 @@ public final class TAConfigHolder {
         TAConfig.fractureDimList = TAConfigManager.addOption(new ConfigOptionStringList(false, world.fractureDimList));
         TAConfig.fractureLocatorUpdateInterval = TAConfigManager.addOption(new ConfigOptionInt(false, world.fractureLocatorUpdateInterval));
         TAConfig.fracturesAlwaysTeleport = TAConfigManager.addOption(new ConfigOptionBoolean(false, world.fracturesAlwaysTeleport));
+        TAConfig.worldGenTickBudget = TAConfigManager.addOption(new ConfigOptionDouble(false, world.worldGenTickBudget));
         TAConfig.disableEmptiness = TAConfigManager.addOption(new ConfigOptionBoolean(false, world.disableEmptiness));
     
         TAConfig.disableCoremod = TAConfigManager.addOption(new ConfigOptionBoolean(false, general.disableCoremod));
@@ -1009,6 +1033,7 @@ public final class TAConfigHolder {
         TAConfig.impetusGeneratorBufferSize = TAConfigManager.addOption(new ConfigOptionInt(true, gameplay.impetus.impetusGenerator.bufferSize));
         
         TAConfig.allowWussRiftSeed = TAConfigManager.addOption(new ConfigOptionBoolean(false, gameplay.allowWussRiftSeed));
+        TAConfig.terraformerColumnsPerOperation = TAConfigManager.addOption(new ConfigOptionInt(false, gameplay.terraformerColumnsPerOperation));
         
         TAConfig.cannonBeamDamage = TAConfigManager.addOption(new ConfigOptionFloat(false, gameplay.impetus.cannon.beamDamage));
         TAConfig.cannonBeamCostInitial = TAConfigManager.addOption(new ConfigOptionLong(true, (long) gameplay.impetus.cannon.beamCostInitial));
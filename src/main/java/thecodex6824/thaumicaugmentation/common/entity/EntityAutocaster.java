@@ -69,6 +69,7 @@ import thecodex6824.thaumicaugmentation.api.impetus.CapabilityImpetusStorage;
 import thecodex6824.thaumicaugmentation.api.impetus.ImpetusStorage;
 import thecodex6824.thaumicaugmentation.api.ward.entity.CapabilityWardOwnerProvider;
 import thecodex6824.thaumicaugmentation.api.ward.entity.WardOwnerProviderOwnable;
+import thecodex6824.thaumicaugmentation.common.event.EntityUUIDTracker;
 import thecodex6824.thaumicaugmentation.common.util.BitUtil;
 import thecodex6824.thaumicaugmentation.init.GUIHandler.TAInventory;
 
@@ -241,9 +242,9 @@ public class EntityAutocaster extends EntityAutocasterBase implements IEntityOwn
     public Entity getOwner() {
         if ((ownerRef.get() == null || ownerRef.get().isDead) && dataManager.get(OWNER_ID).isPresent()) {
             ownerRef.clear();
-            List<Entity> entities = world.getEntities(Entity.class, entity -> entity != null && entity.getPersistentID().equals(dataManager.get(OWNER_ID).get()));
-            if (!entities.isEmpty())
-                ownerRef = new WeakReference<>(entities.get(0));
+            Entity entity = EntityUUIDTracker.getEntity(world, dataManager.get(OWNER_ID).get());
+            if (entity != null)
+                ownerRef = new WeakReference<>(entity);
             else {
                 List<? extends EntityPlayer> players;
                 if (!world.isRemote)
@@ -79,6 +79,7 @@ import thecodex6824.thaumicaugmentation.ThaumicAugmentation;
 import thecodex6824.thaumicaugmentation.api.TAConfig;
 import thecodex6824.thaumicaugmentation.api.TAItems;
 import thecodex6824.thaumicaugmentation.common.entity.ai.EntityLookHelperUnlimitedPitch;
+import thecodex6824.thaumicaugmentation.common.event.EntityUUIDTracker;
 import thecodex6824.thaumicaugmentation.common.util.BitUtil;
 import thecodex6824.thaumicaugmentation.init.GUIHandler.TAInventory;
 
@@ -398,9 +399,9 @@ public class EntityCelestialObserver extends EntityCreature implements IEntityOw
     public Entity getOwner() {
         if ((ownerRef.get() == null || ownerRef.get().isDead) && dataManager.get(OWNER_ID).isPresent()) {
             ownerRef.clear();
-            List<Entity> entities = world.getEntities(Entity.class, entity -> entity != null && entity.getPersistentID().equals(dataManager.get(OWNER_ID).get()));
-            if (!entities.isEmpty())
-                ownerRef = new WeakReference<>(entities.get(0));
+            Entity entity = EntityUUIDTracker.getEntity(world, dataManager.get(OWNER_ID).get());
+            if (entity != null)
+                ownerRef = new WeakReference<>(entity);
             else {
                 List<? extends EntityPlayer> players;
                 if (!world.isRemote)
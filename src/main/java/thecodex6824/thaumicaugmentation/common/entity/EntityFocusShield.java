@@ -23,7 +23,6 @@ package thecodex6824.thaumicaugmentation.common.entity;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.util.Collections;
-import java.util.List;
 import java.util.UUID;
 
 import javax.annotation.Nullable;
@@ -69,6 +68,7 @@ import thaumcraft.common.lib.network.fx.PacketFXShield;
 import thecodex6824.thaumicaugmentation.ThaumicAugmentation;
 import thecodex6824.thaumicaugmentation.api.entity.ICastedEntity;
 import thecodex6824.thaumicaugmentation.api.entity.IImpulseSpecialEntity;
+import thecodex6824.thaumicaugmentation.common.event.EntityUUIDTracker;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect.ParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.TANetwork;
@@ -443,9 +443,9 @@ public class EntityFocusShield extends EntityLivingBase implements IEntityOwnabl
         
         if ((ownerRef.get() == null || ownerRef.get().isDead) && dataManager.get(OWNER_ID).isPresent()) {
             ownerRef.clear();
-            List<Entity> entities = world.getEntities(Entity.class, entity -> entity != null && entity.getPersistentID().equals(dataManager.get(OWNER_ID).get()));
-            if (!entities.isEmpty())
-                ownerRef = new WeakReference<>(entities.get(0));
+            Entity entity = EntityUUIDTracker.getEntity(world, dataManager.get(OWNER_ID).get());
+            if (entity != null)
+                ownerRef = new WeakReference<>(entity);
             else
                 ++aloneTicks;
         }
@@ -32,6 +32,7 @@ import net.minecraftforge.common.util.Constants.NBT;
 import thaumcraft.api.aura.AuraHelper;
 import thaumcraft.common.config.ModConfig;
 import thaumcraft.common.entities.EntityFluxRift;
+import thecodex6824.thaumicaugmentation.common.event.FluxRiftTracker;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect.ParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.TANetwork;
@@ -54,7 +55,7 @@ public class EntityItemBlockRiftJar extends EntityItem {
     
     protected void breakAndDoBadThings(int size, int seed) {
          
-        List<EntityFluxRift> rifts = world.getEntitiesWithinAABB(EntityFluxRift.class, new AxisAlignedBB(posX, posY, posZ, 
+        List<EntityFluxRift> rifts = FluxRiftTracker.getRiftsInArea(world, new AxisAlignedBB(posX, posY, posZ, 
                 posX, posY, posZ).grow(32.0F));
         if (!rifts.isEmpty()) {
             for (EntityFluxRift rift : rifts) {
@@ -130,7 +131,7 @@ public class EntityItemBlockRiftJar extends EntityItem {
                 if (stack.hasTagCompound() && stack.getTagCompound().hasKey("seed", NBT.TAG_INT) && 
                         stack.getTagCompound().getInteger("size") > 0) {
                     
-                    for (EntityFluxRift rift : world.getEntitiesWithinAABB(EntityFluxRift.class, getEntityBoundingBox().grow(1.0)))
+                    for (EntityFluxRift rift : FluxRiftTracker.getRiftsInArea(world, getEntityBoundingBox().grow(1.0)))
                         rift.setDead();
                     
                     ignoreDamage = true;
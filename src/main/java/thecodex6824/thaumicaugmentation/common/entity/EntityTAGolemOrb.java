@@ -21,7 +21,6 @@
 package thecodex6824.thaumicaugmentation.common.entity;
 
 import java.lang.ref.WeakReference;
-import java.util.List;
 import java.util.UUID;
 
 import net.minecraft.entity.Entity;
@@ -40,6 +39,7 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import thaumcraft.common.lib.SoundsTC;
 import thecodex6824.thaumicaugmentation.ThaumicAugmentation;
+import thecodex6824.thaumicaugmentation.common.event.EntityUUIDTracker;
 
 public class EntityTAGolemOrb extends EntityThrowable {
 
@@ -110,9 +110,9 @@ public class EntityTAGolemOrb extends EntityThrowable {
         super.onUpdate();
         if (!world.isRemote) {
             if (targetID != null) {
-                List<EntityLivingBase> found = world.getEntities(EntityLivingBase.class, e -> e != null && e.getUniqueID().equals(targetID));
-                if (!found.isEmpty()) {
-                    target = new WeakReference<>(found.get(0));
+                EntityLivingBase found = EntityUUIDTracker.getEntity(world, targetID, EntityLivingBase.class);
+                if (found != null) {
+                    target = new WeakReference<>(found);
                     targetID = null;
                 }
             }
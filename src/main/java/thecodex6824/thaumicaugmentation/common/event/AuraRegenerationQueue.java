@@ -0,0 +1,177 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.common.event;
+
+import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import thaumcraft.common.world.aura.AuraHandler;
+import thecodex6824.thaumicaugmentation.api.TAConfig;
+import thecodex6824.thaumicaugmentation.api.ThaumicAugmentationAPI;
+import thecodex6824.thaumicaugmentation.common.world.biome.BiomeUtil;
+
+/**
+ * Regenerates chunk auras over several ticks instead of all at once. Each chunk is only
+ * regenerated once no matter how many times it is queued before its turn comes up, and flux is preserved.
+ * Chunks are only regenerated while they and their horizontal neighbours are loaded, and otherwise wait
+ * until one of those chunks loads again.
+ */
+@EventBusSubscriber(modid = ThaumicAugmentationAPI.MODID)
+public final class AuraRegenerationQueue {
+    
+    private static final Int2ObjectOpenHashMap<LongLinkedOpenHashSet> PENDING = new Int2ObjectOpenHashMap<>();
+    // chunks that were up next while they or a neighbour were unloaded
+    private static final Int2ObjectOpenHashMap<LongOpenHashSet> WAITING = new Int2ObjectOpenHashMap<>();
+    
+    private AuraRegenerationQueue() {}
+    
+    public static void queueChunk(World world, int chunkX, int chunkZ) {
+        if (!world.isRemote) {
+            LongLinkedOpenHashSet chunks = PENDING.get(world.provider.getDimension());
+            if (chunks == null) {
+                chunks = new LongLinkedOpenHashSet();
+                PENDING.put(world.provider.getDimension(), chunks);
+            }
+            
+            long key = ChunkPos.asLong(chunkX, chunkZ);
+            LongOpenHashSet waiting = WAITING.get(world.provider.getDimension());
+            if (waiting == null || !waiting.contains(key))
+                chunks.add(key);
+        }
+    }
+    
+    /**
+     * Returns if the given chunk is still waiting to have its aura regenerated.
+     * @param world The world the chunk is in
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @return If the chunk is queued
+     */
+    public static boolean isChunkQueued(World world, int chunkX, int chunkZ) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        LongLinkedOpenHashSet chunks = PENDING.get(world.provider.getDimension());
+        LongOpenHashSet waiting = WAITING.get(world.provider.getDimension());
+        return (chunks != null && chunks.contains(key)) || (waiting != null && waiting.contains(key));
+    }
+    
+    private static boolean canRegenerate(IChunkProvider provider, int chunkX, int chunkZ) {
+        // the aura base is read from the chunk and the target from the biomes around it,
+        // so anything unloaded here would either be generated or give a wrong result
+        if (provider.getLoadedChunk(chunkX, chunkZ) == null)
+            return false;
+        
+        for (EnumFacing face : EnumFacing.HORIZONTALS) {
+            if (provider.getLoadedChunk(chunkX + face.getXOffset(), chunkZ + face.getZOffset()) == null)
+                return false;
+        }
+        
+        return true;
+    }
+    
+    @SubscribeEvent
+    public static void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase == Phase.END && !event.world.isRemote) {
+            int dim = event.world.provider.getDimension();
+            LongLinkedOpenHashSet chunks = PENDING.get(dim);
+            if (chunks != null && !chunks.isEmpty()) {
+                // always look at at least one chunk so that a tiny budget can't stop regeneration entirely
+                long end = System.nanoTime() + (long) (TAConfig.worldGenTickBudget.getValue() * 1000000.0);
+                IChunkProvider provider = event.world.getChunkProvider();
+                ArrayList<ChunkPos> done = new ArrayList<>();
+                do {
+                    long key = chunks.removeFirstLong();
+                    int chunkX = (int) key, chunkZ = (int) (key >>> 32);
+                    if (canRegenerate(provider, chunkX, chunkZ)) {
+                        ChunkPos pos = new ChunkPos(chunkX, chunkZ);
+                        BiomeUtil.generateNewAura(event.world, new BlockPos(pos.getXStart(), 0, pos.getZStart()), true);
+                        done.add(pos);
+                    }
+                    else {
+                        LongOpenHashSet waiting = WAITING.get(dim);
+                        if (waiting == null) {
+                            waiting = new LongOpenHashSet();
+                            WAITING.put(dim, waiting);
+                        }
+                        
+                        waiting.add(key);
+                    }
+                } while (!chunks.isEmpty() && System.nanoTime() < end);
+                
+                if (done.isEmpty())
+                    return;
+                
+                // mark everything done this tick at once, so the list is only copied once
+                CopyOnWriteArrayList<ChunkPos> list = AuraHandler.dirtyChunks.get(dim);
+                if (list == null) {
+                    list = new CopyOnWriteArrayList<>();
+                    AuraHandler.dirtyChunks.put(dim, list);
+                }
+                
+                list.addAllAbsent(done);
+            }
+        }
+    }
+    
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        World world = event.getWorld();
+        if (!world.isRemote) {
+            LongOpenHashSet waiting = WAITING.get(world.provider.getDimension());
+            if (waiting != null && !waiting.isEmpty()) {
+                // this chunk may have been the last one missing for itself or any of its neighbours
+                int chunkX = event.getChunk().x, chunkZ = event.getChunk().z;
+                requeueWaiting(world, waiting, chunkX, chunkZ);
+                for (EnumFacing face : EnumFacing.HORIZONTALS)
+                    requeueWaiting(world, waiting, chunkX + face.getXOffset(), chunkZ + face.getZOffset());
+            }
+        }
+    }
+    
+    private static void requeueWaiting(World world, LongOpenHashSet waiting, int chunkX, int chunkZ) {
+        if (waiting.remove(ChunkPos.asLong(chunkX, chunkZ)))
+            queueChunk(world, chunkX, chunkZ);
+    }
+    
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        // the world has already been saved at this point, so any regeneration done now would be lost anyway
+        // terraformers keep the chunks they queued until they are done, and queue them again when loaded
+        if (!event.getWorld().isRemote) {
+            PENDING.remove(event.getWorld().provider.getDimension());
+            WAITING.remove(event.getWorld().provider.getDimension());
+        }
+    }
+    
+}
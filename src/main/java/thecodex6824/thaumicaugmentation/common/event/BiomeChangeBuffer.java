@@ -0,0 +1,110 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.common.event;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
+import thecodex6824.thaumicaugmentation.api.ThaumicAugmentationAPI;
+import thecodex6824.thaumicaugmentation.common.network.PacketBiomeUpdate;
+import thecodex6824.thaumicaugmentation.common.network.TANetwork;
+
+/**
+ * Collects server side biome changes during a tick, so that each changed chunk is only marked dirty
+ * and sent to clients once per tick, no matter how many columns in it changed.
+ */
+@EventBusSubscriber(modid = ThaumicAugmentationAPI.MODID)
+public final class BiomeChangeBuffer {
+    
+    protected static class ChunkChanges {
+        
+        public final long[] changed;
+        public final int[] biomes;
+        
+        public ChunkChanges() {
+            changed = new long[4];
+            biomes = new int[256];
+        }
+        
+    }
+    
+    private static final Int2ObjectOpenHashMap<Long2ObjectLinkedOpenHashMap<ChunkChanges>> PENDING = new Int2ObjectOpenHashMap<>();
+    
+    private BiomeChangeBuffer() {}
+    
+    public static void queueChange(World world, BlockPos pos, int biome) {
+        if (!world.isRemote) {
+            Long2ObjectLinkedOpenHashMap<ChunkChanges> chunks = PENDING.get(world.provider.getDimension());
+            if (chunks == null) {
+                chunks = new Long2ObjectLinkedOpenHashMap<>();
+                PENDING.put(world.provider.getDimension(), chunks);
+            }
+            
+            long key = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+            ChunkChanges changes = chunks.get(key);
+            if (changes == null) {
+                changes = new ChunkChanges();
+                chunks.put(key, changes);
+            }
+            
+            int index = (pos.getZ() & 15) << 4 | (pos.getX() & 15);
+            changes.changed[index >>> 6] |= 1L << (index & 63);
+            changes.biomes[index] = biome;
+        }
+    }
+    
+    @SubscribeEvent
+    public static void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase == Phase.END && !event.world.isRemote) {
+            int dim = event.world.provider.getDimension();
+            Long2ObjectLinkedOpenHashMap<ChunkChanges> chunks = PENDING.get(dim);
+            if (chunks != null && !chunks.isEmpty()) {
+                for (Long2ObjectMap.Entry<ChunkChanges> entry : chunks.long2ObjectEntrySet()) {
+                    int chunkX = (int) entry.getLongKey();
+                    int chunkZ = (int) (entry.getLongKey() >>> 32);
+                    BlockPos center = new BlockPos(chunkX * 16 + 8, 64, chunkZ * 16 + 8);
+                    event.world.markChunkDirty(center, null);
+                    ChunkChanges changes = entry.getValue();
+                    TANetwork.INSTANCE.sendToAllTracking(new PacketBiomeUpdate(chunkX, chunkZ, changes.changed, changes.biomes),
+                            new TargetPoint(dim, center.getX(), center.getY(), center.getZ(), 64.0));
+                }
+                
+                chunks.clear();
+            }
+        }
+    }
+    
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (!event.getWorld().isRemote)
+            PENDING.remove(event.getWorld().provider.getDimension());
+    }
+    
+}
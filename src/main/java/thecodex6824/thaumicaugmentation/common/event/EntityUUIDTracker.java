@@ -0,0 +1,97 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.common.event;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import thecodex6824.thaumicaugmentation.api.ThaumicAugmentationAPI;
+import thecodex6824.thaumicaugmentation.common.util.WorldListenerAdapter;
+
+/**
+ * Keeps a per-world index of loaded entities by UUID, so that entities and tiles re-resolving
+ * an owner or target don't have to scan the entire loaded entity list.
+ */
+@EventBusSubscriber(modid = ThaumicAugmentationAPI.MODID)
+public final class EntityUUIDTracker {
+    
+    protected static class WorldEntities extends WorldListenerAdapter {
+        
+        public final Object2ObjectOpenHashMap<UUID, WeakReference<Entity>> entities = new Object2ObjectOpenHashMap<>();
+        
+        @Override
+        public void onEntityAdded(Entity entity) {
+            entities.put(entity.getPersistentID(), new WeakReference<>(entity));
+        }
+        
+        @Override
+        public void onEntityRemoved(Entity entity) {
+            WeakReference<Entity> ref = entities.get(entity.getPersistentID());
+            // a different entity with the same UUID may have replaced this one already
+            if (ref != null && (ref.get() == entity || ref.get() == null))
+                entities.remove(entity.getPersistentID());
+        }
+        
+    }
+    
+    private static final WorldListenerRegistry<WorldEntities> WORLDS = new WorldListenerRegistry<>(world -> {
+        WorldEntities entities = new WorldEntities();
+        for (Entity entity : world.loadedEntityList)
+            entities.onEntityAdded(entity);
+        
+        return entities;
+    }, true);
+    
+    private EntityUUIDTracker() {}
+    
+    /**
+     * Returns the entity loaded in the given world with the given UUID, if it exists and is of the given type.
+     * @param world The world to look in
+     * @param id The UUID of the entity
+     * @param type The class the entity must be an instance of
+     * @return The entity, or null if there is no such entity
+     */
+    @Nullable
+    public static <T extends Entity> T getEntity(World world, UUID id, Class<T> type) {
+        WorldEntities tracked = WORLDS.get(world);
+        if (tracked == null) {
+            List<T> found = world.getEntities(type, e -> e != null && e.getPersistentID().equals(id));
+            return !found.isEmpty() ? found.get(0) : null;
+        }
+        
+        WeakReference<Entity> ref = tracked.entities.get(id);
+        Entity entity = ref != null ? ref.get() : null;
+        return type.isInstance(entity) ? type.cast(entity) : null;
+    }
+    
+    @Nullable
+    public static Entity getEntity(World world, UUID id) {
+        return getEntity(world, id, Entity.class);
+    }
+    
+}
@@ -0,0 +1,176 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.common.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.EnumFacing.Axis;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import thaumcraft.common.entities.EntityFluxRift;
+import thecodex6824.thaumicaugmentation.api.ThaumicAugmentationAPI;
+import thecodex6824.thaumicaugmentation.common.util.WorldListenerAdapter;
+
+/**
+ * Keeps track of the flux rifts loaded in each world, bucketed by chunk, so that machines
+ * interacting with rifts don't have to scan for entities across several chunks.
+ */
+@EventBusSubscriber(modid = ThaumicAugmentationAPI.MODID)
+public final class FluxRiftTracker {
+    
+    protected static class WorldRifts extends WorldListenerAdapter {
+        
+        public final Long2ObjectOpenHashMap<ArrayList<EntityFluxRift>> chunks = new Long2ObjectOpenHashMap<>();
+        
+        @Override
+        public void onEntityAdded(Entity entity) {
+            if (entity instanceof EntityFluxRift) {
+                long key = ChunkPos.asLong(MathHelper.floor(entity.posX) >> 4, MathHelper.floor(entity.posZ) >> 4);
+                ArrayList<EntityFluxRift> rifts = chunks.get(key);
+                if (rifts == null) {
+                    rifts = new ArrayList<>(1);
+                    chunks.put(key, rifts);
+                }
+                
+                if (!rifts.contains(entity))
+                    rifts.add((EntityFluxRift) entity);
+            }
+        }
+        
+        @Override
+        public void onEntityRemoved(Entity entity) {
+            if (entity instanceof EntityFluxRift) {
+                long key = ChunkPos.asLong(MathHelper.floor(entity.posX) >> 4, MathHelper.floor(entity.posZ) >> 4);
+                ArrayList<EntityFluxRift> rifts = chunks.get(key);
+                if (rifts == null || !rifts.remove(entity)) {
+                    // rifts don't move on their own, but in case something moved it anyway
+                    for (ArrayList<EntityFluxRift> list : chunks.values()) {
+                        if (list.remove(entity))
+                            break;
+                    }
+                }
+                
+                chunks.values().removeIf(ArrayList::isEmpty);
+            }
+        }
+        
+    }
+    
+    private static final WorldListenerRegistry<WorldRifts> WORLDS = new WorldListenerRegistry<>(world -> {
+        WorldRifts rifts = new WorldRifts();
+        for (Entity entity : world.loadedEntityList)
+            rifts.onEntityAdded(entity);
+        
+        return rifts;
+    }, true);
+    
+    private FluxRiftTracker() {}
+    
+    /**
+     * Returns all tracked rifts in the given world with a bounding box intersecting the given box.
+     * @param world The world to look in
+     * @param box The area to look in
+     * @param filter A filter the rifts must pass to be returned
+     * @return The rifts in the area
+     */
+    public static List<EntityFluxRift> getRiftsInArea(World world, AxisAlignedBB box, Predicate<EntityFluxRift> filter) {
+        ArrayList<EntityFluxRift> found = new ArrayList<>();
+        WorldRifts tracked = WORLDS.get(world);
+        if (tracked == null)
+            return world.getEntitiesWithinAABB(EntityFluxRift.class, box, filter::test);
+        else if (!tracked.chunks.isEmpty()) {
+            // same as vanilla, entity bounding boxes can extend past the chunk the entity is in
+            int minX = MathHelper.floor((box.minX - World.MAX_ENTITY_RADIUS) / 16.0);
+            int maxX = MathHelper.floor((box.maxX + World.MAX_ENTITY_RADIUS) / 16.0);
+            int minZ = MathHelper.floor((box.minZ - World.MAX_ENTITY_RADIUS) / 16.0);
+            int maxZ = MathHelper.floor((box.maxZ + World.MAX_ENTITY_RADIUS) / 16.0);
+            for (int x = minX; x <= maxX; ++x) {
+                for (int z = minZ; z <= maxZ; ++z) {
+                    ArrayList<EntityFluxRift> rifts = tracked.chunks.get(ChunkPos.asLong(x, z));
+                    if (rifts != null) {
+                        for (EntityFluxRift rift : rifts) {
+                            if (!rift.isDead && rift.getEntityBoundingBox().intersects(box) && filter.test(rift))
+                                found.add(rift);
+                        }
+                    }
+                }
+            }
+        }
+        
+        return found;
+    }
+    
+    public static List<EntityFluxRift> getRiftsInArea(World world, AxisAlignedBB box) {
+        return getRiftsInArea(world, box, rift -> true);
+    }
+    
+    public static double getDistanceAlongFace(BlockPos pos, EnumFacing face, Vec3d vec) {
+        if (face.getAxis() == Axis.X)
+            return Math.abs(pos.getX() - vec.x);
+        else if (face.getAxis() == Axis.Y)
+            return Math.abs(pos.getY() - vec.y);
+        else
+            return Math.abs(pos.getZ() - vec.z);
+    }
+    
+    /**
+     * Finds the closest rift in front of the given face of a block, within the given distance. The area
+     * checked is the same as the 3x3 column used by the stability field generator and rift feeder.
+     * @param world The world to look in
+     * @param pos The position of the block
+     * @param face The face of the block to look in front of
+     * @param distance How many blocks in front of the face to look
+     * @param filter A filter the rift must pass to be returned
+     * @return The closest rift, or null if there are none
+     */
+    @Nullable
+    public static EntityFluxRift findClosestRiftAlongFace(World world, BlockPos pos, EnumFacing face, int distance,
+            Predicate<EntityFluxRift> filter) {
+        BlockPos pos1 = pos.offset(face).add(1.0 - face.getXOffset(), 1.0 - face.getYOffset(), 1.0 - face.getZOffset());
+        BlockPos pos2 = pos.offset(face, distance).add(1.0 + face.getXOffset(), 1.0 + face.getYOffset(), 1.0 + face.getZOffset());
+        List<EntityFluxRift> rifts = getRiftsInArea(world, new AxisAlignedBB(pos1.getX() - 1, pos1.getY() - 1, pos1.getZ() - 1,
+                pos2.getX() + 2, pos2.getY() + 2, pos2.getZ() + 2), filter);
+        EntityFluxRift closest = null;
+        double closestDist = Double.MAX_VALUE;
+        for (EntityFluxRift rift : rifts) {
+            double dist = getDistanceAlongFace(pos, face, rift.getPositionVector());
+            if (dist < closestDist) {
+                closest = rift;
+                closestDist = dist;
+            }
+        }
+        
+        return closest;
+    }
+    
+}
@@ -0,0 +1,237 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.common.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import thecodex6824.thaumicaugmentation.api.ThaumicAugmentationAPI;
+import thecodex6824.thaumicaugmentation.api.impetus.node.CapabilityImpetusNode;
+import thecodex6824.thaumicaugmentation.api.impetus.node.IImpetusNode;
+import thecodex6824.thaumicaugmentation.api.impetus.node.NodeHelper;
+import thecodex6824.thaumicaugmentation.common.util.WorldListenerAdapter;
+
+@EventBusSubscriber(modid = ThaumicAugmentationAPI.MODID)
+public final class ImpetusLineOfSightCache {
+    
+    // results are thrown away after this long even without a block change, in case something
+    // changed a block without notifying listeners (i.e. setBlockState without flag 2)
+    private static final int RESULT_LIFETIME = 1200;
+    
+    protected static final class Link {
+        
+        public final Vec3d start;
+        public final Vec3d end;
+        public final BlockPos target;
+        
+        public Link(Vec3d start, Vec3d end, BlockPos target) {
+            this.start = start;
+            this.end = end;
+            this.target = target.toImmutable();
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Link))
+                return false;
+            
+            Link other = (Link) obj;
+            return start.equals(other.start) && end.equals(other.end) && target.equals(other.target);
+        }
+        
+        @Override
+        public int hashCode() {
+            return (start.hashCode() * 31 + end.hashCode()) * 31 + target.hashCode();
+        }
+        
+    }
+    
+    protected static final class Result {
+        
+        public final IImpetusNode source;
+        public final boolean clear;
+        public final long[] sections;
+        public final long expires;
+        
+        public Result(IImpetusNode source, boolean clear, long[] sections, long expires) {
+            this.source = source;
+            this.clear = clear;
+            this.sections = sections;
+            this.expires = expires;
+        }
+        
+    }
+    
+    protected static class WorldCache extends WorldListenerAdapter {
+        
+        public final HashMap<Link, Result> links = new HashMap<>();
+        public final Long2ObjectOpenHashMap<HashSet<Link>> sections = new Long2ObjectOpenHashMap<>();
+        public final ReferenceOpenHashSet<IImpetusNode> pending = new ReferenceOpenHashSet<>();
+        
+        public void add(Link link, Result result) {
+            links.put(link, result);
+            for (long section : result.sections) {
+                HashSet<Link> inSection = sections.get(section);
+                if (inSection == null) {
+                    inSection = new HashSet<>();
+                    sections.put(section, inSection);
+                }
+                
+                inSection.add(link);
+            }
+        }
+        
+        @Nullable
+        public Result remove(Link link) {
+            Result result = links.remove(link);
+            if (result != null) {
+                for (long section : result.sections) {
+                    HashSet<Link> inSection = sections.get(section);
+                    if (inSection != null) {
+                        inSection.remove(link);
+                        if (inSection.isEmpty())
+                            sections.remove(section);
+                    }
+                }
+            }
+            
+            return result;
+        }
+        
+        @Override
+        public void notifyBlockUpdate(World world, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+            // tiles call this with identical states to sync themselves, which can't change line of sight
+            if (oldState != newState) {
+                HashSet<Link> affected = sections.get(sectionKey(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4));
+                if (affected != null) {
+                    for (Link link : new ArrayList<>(affected)) {
+                        Result result = remove(link);
+                        if (result != null && result.clear)
+                            pending.add(result.source);
+                    }
+                }
+            }
+        }
+        
+    }
+    
+    private static final WorldListenerRegistry<WorldCache> WORLDS = new WorldListenerRegistry<>(world -> new WorldCache(), false);
+    
+    private ImpetusLineOfSightCache() {}
+    
+    protected static long sectionKey(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFF) << 42) | ((long) (y & 0xFFFFF) << 22) | (z & 0x3FFFFF);
+    }
+    
+    protected static long[] getSectionsCrossed(Vec3d start, Vec3d end) {
+        // the collision check steps up to a block past the hit, so include a margin around the beam
+        int minX = MathHelper.floor(Math.min(start.x, end.x) - 1) >> 4;
+        int minY = Math.max(MathHelper.floor(Math.min(start.y, end.y) - 1), 0) >> 4;
+        int minZ = MathHelper.floor(Math.min(start.z, end.z) - 1) >> 4;
+        int maxX = MathHelper.floor(Math.max(start.x, end.x) + 1) >> 4;
+        int maxY = Math.min(MathHelper.floor(Math.max(start.y, end.y) + 1), 255) >> 4;
+        int maxZ = MathHelper.floor(Math.max(start.z, end.z) + 1) >> 4;
+        long[] sections = new long[Math.max((maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1), 0)];
+        int i = 0;
+        for (int x = minX; x <= maxX; ++x) {
+            for (int y = minY; y <= maxY; ++y) {
+                for (int z = minZ; z <= maxZ; ++z)
+                    sections[i++] = sectionKey(x, y, z);
+            }
+        }
+        
+        return sections;
+    }
+    
+    public static boolean nodesPassCollisionCheck(World sharedWorld, IImpetusNode node1, IImpetusNode node2) {
+        WorldCache cache = WORLDS.get(sharedWorld);
+        if (cache == null)
+            return NodeHelper.nodesPassDefaultCollisionCheck(sharedWorld, node1, node2);
+        
+        Vec3d start = node1.getBeamEndpoint();
+        Vec3d end = node2.getBeamEndpoint();
+        Link link = new Link(start, end, node2.getLocation().getPos());
+        Result result = cache.links.get(link);
+        long time = sharedWorld.getTotalWorldTime();
+        if (result == null || result.expires < time) {
+            if (result != null)
+                cache.remove(link);
+            
+            result = new Result(node1, NodeHelper.nodesPassDefaultCollisionCheck(sharedWorld, node1, node2),
+                    getSectionsCrossed(start, end), time + RESULT_LIFETIME);
+            cache.add(link, result);
+        }
+        
+        return result.clear;
+    }
+    
+    @SubscribeEvent
+    public static void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase == Phase.END && !event.world.isRemote) {
+            World world = event.world;
+            WorldCache cache = WORLDS.get(world);
+            if (cache != null) {
+                if (!cache.pending.isEmpty()) {
+                    // links that lost their cached result are checked again right away instead of waiting for the owner's next validation
+                    ArrayList<IImpetusNode> toValidate = new ArrayList<>(cache.pending);
+                    cache.pending.clear();
+                    for (IImpetusNode node : toValidate) {
+                        BlockPos pos = node.getLocation().getPos();
+                        if (node.getLocation().getDimension() == world.provider.getDimension() && world.isBlockLoaded(pos)) {
+                            TileEntity tile = world.getTileEntity(pos);
+                            if (tile != null && tile.getCapability(CapabilityImpetusNode.IMPETUS_NODE, null) == node)
+                                NodeHelper.validateOutputs(world, node);
+                        }
+                    }
+                }
+                
+                long time = world.getTotalWorldTime();
+                if (time % RESULT_LIFETIME == 0) {
+                    ArrayList<Link> expired = new ArrayList<>();
+                    for (Map.Entry<Link, Result> entry : cache.links.entrySet()) {
+                        if (entry.getValue().expires < time)
+                            expired.add(entry.getKey());
+                    }
+                    
+                    for (Link link : expired)
+                        cache.remove(link);
+                }
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,160 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.common.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import thecodex6824.thaumicaugmentation.api.ThaumicAugmentationAPI;
+import thecodex6824.thaumicaugmentation.api.impetus.ImpetusAPI;
+import thecodex6824.thaumicaugmentation.api.impetus.node.IImpetusNode;
+import thecodex6824.thaumicaugmentation.api.internal.TAInternals;
+import thecodex6824.thaumicaugmentation.api.util.DimensionalBlockPos;
+import thecodex6824.thaumicaugmentation.api.util.RaytraceHelper;
+
+@EventBusSubscriber(modid = ThaumicAugmentationAPI.MODID)
+public final class ImpetusTransactionAccumulator {
+    
+    protected static class Segment {
+        
+        public IImpetusNode first;
+        public IImpetusNode second;
+        public long energy;
+        
+        public Segment(IImpetusNode first, IImpetusNode second) {
+            this.first = first;
+            this.second = second;
+        }
+        
+    }
+    
+    protected static class WorldTransactions {
+        
+        // keyed by node positions, so different deques describing the same path collapse into one entry
+        public final LinkedHashMap<List<DimensionalBlockPos>, Collection<IImpetusNode>> paths = new LinkedHashMap<>();
+        public final LinkedHashMap<List<DimensionalBlockPos>, Segment> segments = new LinkedHashMap<>();
+        
+        public boolean isEmpty() {
+            return paths.isEmpty() && segments.isEmpty();
+        }
+        
+    }
+    
+    private static final Int2ObjectOpenHashMap<WorldTransactions> WORLDS = new Int2ObjectOpenHashMap<>();
+    
+    private ImpetusTransactionAccumulator() {}
+    
+    protected static WorldTransactions getTransactions(int dim) {
+        WorldTransactions transactions = WORLDS.get(dim);
+        if (transactions == null) {
+            transactions = new WorldTransactions();
+            WORLDS.put(dim, transactions);
+        }
+        
+        return transactions;
+    }
+    
+    protected static DimensionalBlockPos copyLocation(IImpetusNode node) {
+        DimensionalBlockPos loc = node.getLocation();
+        return new DimensionalBlockPos(loc.getPos().toImmutable(), loc.getDimension());
+    }
+    
+    public static void queueTransaction(Collection<IImpetusNode> path, long energy) {
+        if (path.isEmpty())
+            return;
+        
+        ArrayList<DimensionalBlockPos> key = new ArrayList<>(path.size());
+        for (IImpetusNode node : path)
+            key.add(copyLocation(node));
+        
+        // the path is synced by the world it starts in, and each segment is handled by the world it is in
+        getTransactions(key.get(0).getDimension()).paths.put(key, path);
+        if (path.size() >= 2) {
+            Iterator<IImpetusNode> iterator = path.iterator();
+            IImpetusNode first = iterator.next();
+            int index = 0;
+            while (iterator.hasNext()) {
+                IImpetusNode second = iterator.next();
+                DimensionalBlockPos firstPos = key.get(index);
+                DimensionalBlockPos secondPos = key.get(++index);
+                if (firstPos.getDimension() == secondPos.getDimension() && first.shouldPhysicalBeamLinkTo(second) &&
+                        second.shouldPhysicalBeamLinkTo(first)) {
+                    
+                    List<DimensionalBlockPos> segmentKey = Arrays.asList(firstPos, secondPos);
+                    WorldTransactions transactions = getTransactions(firstPos.getDimension());
+                    Segment segment = transactions.segments.get(segmentKey);
+                    if (segment == null) {
+                        segment = new Segment(first, second);
+                        transactions.segments.put(segmentKey, segment);
+                    }
+                    
+                    segment.energy += energy;
+                }
+                
+                first = second;
+            }
+        }
+    }
+    
+    public static void flush(World world) {
+        WorldTransactions transactions = WORLDS.get(world.provider.getDimension());
+        if (transactions != null && !transactions.isEmpty()) {
+            for (Collection<IImpetusNode> path : transactions.paths.values())
+                TAInternals.syncImpetusTransaction(path);
+            
+            transactions.paths.clear();
+            for (Segment segment : transactions.segments.values()) {
+                Vec3d source = new Vec3d(segment.first.getLocation().getPos());
+                float damage = Math.max(segment.energy / 10.0F, 1.0F);
+                for (Entity e : RaytraceHelper.raytraceEntities(world, segment.first.getBeamEndpoint(), segment.second.getBeamEndpoint()))
+                    ImpetusAPI.causeImpetusDamage(segment.first.getLocation().getDimension() == e.dimension ? source : null, e, damage);
+            }
+            
+            transactions.segments.clear();
+        }
+    }
+    
+    @SubscribeEvent
+    public static void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase == Phase.END && !event.world.isRemote)
+            flush(event.world);
+    }
+    
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (!event.getWorld().isRemote)
+            WORLDS.remove(event.getWorld().provider.getDimension());
+    }
+    
+}
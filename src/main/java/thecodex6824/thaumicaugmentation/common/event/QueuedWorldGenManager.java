@@ -20,13 +20,20 @@
 
 package thecodex6824.thaumicaugmentation.common.event;
 
-import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.PriorityQueue;
 
+import javax.annotation.Nullable;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.world.World;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
 import net.minecraftforge.fml.relauncher.Side;
+import thecodex6824.thaumicaugmentation.api.TAConfig;
 import thecodex6824.thaumicaugmentation.api.ThaumicAugmentationAPI;
 import thecodex6824.thaumicaugmentation.common.world.WorldDataCache;
 
@@ -35,17 +42,91 @@ public final class QueuedWorldGenManager {
 
     private QueuedWorldGenManager() {}
     
-    private static final ArrayDeque<Runnable> QUEUE = new ArrayDeque<>();
+    protected static class Job {
+        
+        @Nullable
+        public final World world;
+        public final int chunkX;
+        public final int chunkZ;
+        public final long order;
+        public final Runnable generator;
+        public double priority;
+        
+        public Job(@Nullable World world, int chunkX, int chunkZ, long order, Runnable generator) {
+            this.world = world;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.order = order;
+            this.generator = generator;
+            priority = Double.MAX_VALUE;
+        }
+        
+        public void updatePriority() {
+            priority = Double.MAX_VALUE;
+            if (world != null) {
+                double x = chunkX * 16 + 8;
+                double z = chunkZ * 16 + 8;
+                for (EntityPlayer player : world.playerEntities) {
+                    double dX = player.posX - x;
+                    double dZ = player.posZ - z;
+                    priority = Math.min(priority, dX * dX + dZ * dZ);
+                }
+            }
+        }
+        
+    }
+    
+    // jobs that are closer to players run first, and jobs that were queued first break ties
+    private static final Comparator<Job> ORDER = Comparator.<Job>comparingDouble(job -> job.priority).thenComparingLong(job -> job.order);
+    private static final int PRIORITY_UPDATE_INTERVAL = 20;
+    
+    private static final PriorityQueue<Job> QUEUE = new PriorityQueue<>(ORDER);
+    private static long nextOrder = 0;
+    private static int ticks = 0;
     
+    /**
+     * Queues a generation task that is not associated with any particular location.
+     * These tasks run after all tasks that do have a location.
+     * @param generator The generation task
+     */
     public static void enqueueGeneration(Runnable generator) {
-        QUEUE.add(generator);
+        enqueueGeneration(null, 0, 0, generator);
+    }
+    
+    /**
+     * Queues a generation task for the given chunk. Tasks for chunks closer to players run first.
+     * @param world The world the chunk is in
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @param generator The generation task
+     */
+    public static void enqueueGeneration(@Nullable World world, int chunkX, int chunkZ, Runnable generator) {
+        Job job = new Job(world, chunkX, chunkZ, nextOrder++, generator);
+        job.updatePriority();
+        QUEUE.add(job);
     }
     
     @SubscribeEvent
     public static void onServerTick(ServerTickEvent event) {
         if (event.side == Side.SERVER && event.phase == Phase.START) {
-            if (WorldDataCache.isInitialized() && !QUEUE.isEmpty())
-                QUEUE.pop().run();
+            if (WorldDataCache.isInitialized() && !QUEUE.isEmpty()) {
+                if (++ticks >= PRIORITY_UPDATE_INTERVAL) {
+                    // priorities can't change while jobs are in the heap, so it is rebuilt with the new ones
+                    ArrayList<Job> jobs = new ArrayList<>(QUEUE);
+                    QUEUE.clear();
+                    for (Job job : jobs)
+                        job.updatePriority();
+                    
+                    QUEUE.addAll(jobs);
+                    ticks = 0;
+                }
+                
+                // always run at least one job so the queue can't get stuck, even with a tiny budget
+                long end = System.nanoTime() + (long) (TAConfig.worldGenTickBudget.getValue() * 1000000.0);
+                do {
+                    QUEUE.poll().generator.run();
+                } while (!QUEUE.isEmpty() && System.nanoTime() < end);
+            }
         }
     }
     
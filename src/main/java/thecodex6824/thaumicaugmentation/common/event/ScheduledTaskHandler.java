@@ -20,10 +20,9 @@
 
 package thecodex6824.thaumicaugmentation.common.event;
 
-import java.util.Iterator;
-import java.util.Map.Entry;
+import java.util.PriorityQueue;
 
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
@@ -34,39 +33,52 @@ import thecodex6824.thaumicaugmentation.common.util.ISchedulableTask;
 @EventBusSubscriber(modid = ThaumicAugmentationAPI.MODID)
 public class ScheduledTaskHandler {
     
-    private static final Object2IntOpenHashMap<ISchedulableTask> TEMP = new Object2IntOpenHashMap<>();
-    private static final Object2IntOpenHashMap<ISchedulableTask> ENTRIES = new Object2IntOpenHashMap<>();
+    protected static class ScheduledTask implements Comparable<ScheduledTask> {
+        
+        public final ISchedulableTask task;
+        public final long due;
+        public final long order;
+        
+        public ScheduledTask(ISchedulableTask task, long due, long order) {
+            this.task = task;
+            this.due = due;
+            this.order = order;
+        }
+        
+        @Override
+        public int compareTo(ScheduledTask other) {
+            int result = Long.compare(due, other.due);
+            return result != 0 ? result : Long.compare(order, other.order);
+        }
+        
+    }
     
-    private static boolean iterating = false;
+    // tasks ordered by the absolute tick they are due on, so each tick only looks at the tasks that are due
+    // re-registering a task replaces its entry in ACTIVE, and the old entry is skipped when it comes up
+    private static final PriorityQueue<ScheduledTask> QUEUE = new PriorityQueue<>();
+    private static final Object2ObjectOpenHashMap<ISchedulableTask, ScheduledTask> ACTIVE = new Object2ObjectOpenHashMap<>();
+    
+    private static long currentTick = 0;
+    private static long nextOrder = 0;
     
     public static void registerTask(ISchedulableTask task, int delay) {
-        if (!iterating)
-            ENTRIES.put(task, delay);
-        else
-            TEMP.put(task, delay);
+        // a delay of 0 means the task runs at the end of the next server tick
+        ScheduledTask entry = new ScheduledTask(task, currentTick + Math.max(delay, 0) + 1, nextOrder++);
+        ACTIVE.put(task, entry);
+        QUEUE.add(entry);
     }
     
     @SubscribeEvent
     public static void onServerTick(TickEvent.ServerTickEvent event) {
-        if (event.phase == Phase.END && !ENTRIES.isEmpty()) {
-            iterating = true;
-            Iterator<Object2IntOpenHashMap.Entry<ISchedulableTask>> iterator = ENTRIES.object2IntEntrySet().iterator();
-            while (iterator.hasNext()) {
-                Entry<ISchedulableTask, Integer> task = iterator.next();
-                if (task.getValue() == 0) {
-                    task.getKey().execute();
-                    iterator.remove();
+        if (event.phase == Phase.END) {
+            ++currentTick;
+            while (!QUEUE.isEmpty() && QUEUE.peek().due <= currentTick) {
+                ScheduledTask entry = QUEUE.poll();
+                if (ACTIVE.get(entry.task) == entry) {
+                    ACTIVE.remove(entry.task);
+                    entry.task.execute();
                 }
-                else
-                    ENTRIES.addTo(task.getKey(), -1);
-            }
-            
-            if (!TEMP.isEmpty()) {
-                ENTRIES.putAll(TEMP);
-                TEMP.clear();
             }
-            
-            iterating = false;
         }
     }
     
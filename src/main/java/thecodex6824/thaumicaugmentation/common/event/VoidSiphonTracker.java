@@ -0,0 +1,98 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.common.event;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import thaumcraft.api.blocks.BlocksTC;
+import thaumcraft.common.tiles.crafting.TileVoidSiphon;
+import thecodex6824.thaumicaugmentation.api.ThaumicAugmentationAPI;
+import thecodex6824.thaumicaugmentation.common.util.WorldListenerAdapter;
+
+/**
+ * Keeps a per-world counter that changes whenever a void siphon could have appeared or disappeared,
+ * so anything looking for siphons only has to search again when the counter changes.
+ * Block changes that don't notify world listeners, such as ones made without flag 2 or by world generation,
+ * are not seen here, so searches should still be redone every so often.
+ */
+@EventBusSubscriber(modid = ThaumicAugmentationAPI.MODID)
+public final class VoidSiphonTracker {
+    
+    protected static class WorldTracker extends WorldListenerAdapter {
+        
+        public long version = 0;
+        
+        @Override
+        public void notifyBlockUpdate(World world, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+            if (oldState.getBlock() != newState.getBlock() && (oldState.getBlock() == BlocksTC.voidSiphon ||
+                    newState.getBlock() == BlocksTC.voidSiphon)) {
+                
+                ++version;
+            }
+        }
+        
+    }
+    
+    private static final WorldListenerRegistry<WorldTracker> WORLDS = new WorldListenerRegistry<>(world -> new WorldTracker(), false);
+    
+    private VoidSiphonTracker() {}
+    
+    /**
+     * Returns the current siphon version of the given world. If there is no tracker for the world,
+     * a different value is returned every time so that callers always search.
+     * @param world The world to get the version for
+     * @return The current siphon version
+     */
+    public static long getVersion(World world) {
+        WorldTracker tracker = WORLDS.get(world);
+        return tracker != null ? tracker.version : System.nanoTime();
+    }
+    
+    private static void onChunkChanged(World world, Iterable<TileEntity> tiles) {
+        WorldTracker tracker = WORLDS.get(world);
+        if (tracker != null) {
+            for (TileEntity tile : tiles) {
+                if (tile instanceof TileVoidSiphon) {
+                    ++tracker.version;
+                    break;
+                }
+            }
+        }
+    }
+    
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        if (!event.getWorld().isRemote)
+            onChunkChanged(event.getWorld(), event.getChunk().getTileEntityMap().values());
+    }
+    
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (!event.getWorld().isRemote)
+            onChunkChanged(event.getWorld(), event.getChunk().getTileEntityMap().values());
+    }
+    
+}
@@ -20,22 +20,21 @@
 
 package thecodex6824.thaumicaugmentation.common.event;
 
-import java.util.ConcurrentModificationException;
+import java.util.Arrays;
 import java.util.EnumSet;
-import java.util.Iterator;
 import java.util.Map;
+import java.util.UUID;
 
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.server.management.PlayerChunkMapEntry;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.Vec3d;
-import net.minecraft.world.NextTickListEntry;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.chunk.Chunk;
@@ -49,7 +48,6 @@ import net.minecraftforge.event.world.BlockEvent;
 import net.minecraftforge.event.world.BlockEvent.FarmlandTrampleEvent;
 import net.minecraftforge.event.world.BlockEvent.FluidPlaceBlockEvent;
 import net.minecraftforge.event.world.ChunkWatchEvent;
-import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.eventhandler.Event.Result;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
@@ -60,15 +58,15 @@ import thecodex6824.thaumicaugmentation.api.block.property.IWardParticles;
 import thecodex6824.thaumicaugmentation.api.event.BlockWardEvent;
 import thecodex6824.thaumicaugmentation.api.ward.WardHelper;
 import thecodex6824.thaumicaugmentation.api.ward.WardSyncManager;
+import thecodex6824.thaumicaugmentation.api.ward.WardSyncManager.ChunkWardUpdate;
 import thecodex6824.thaumicaugmentation.api.ward.WardSyncManager.DimensionalChunkPos;
-import thecodex6824.thaumicaugmentation.api.ward.WardSyncManager.WardUpdateEntry;
 import thecodex6824.thaumicaugmentation.api.ward.storage.CapabilityWardStorage;
 import thecodex6824.thaumicaugmentation.api.ward.storage.IWardStorage;
 import thecodex6824.thaumicaugmentation.api.ward.storage.IWardStorageServer;
 import thecodex6824.thaumicaugmentation.common.network.PacketFullWardSync;
+import thecodex6824.thaumicaugmentation.common.network.PacketPartialWardSync;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect.ParticleEffect;
-import thecodex6824.thaumicaugmentation.common.network.PacketWardUpdate;
 import thecodex6824.thaumicaugmentation.common.network.TANetwork;
 
 public class WardEventHandler {
@@ -80,40 +78,62 @@ public class WardEventHandler {
         }
     }
     
-    protected static boolean isPlayerInChunkRange(DimensionalChunkPos pos, EntityPlayerMP player) {
-        return FMLCommonHandler.instance().getMinecraftServerInstance().getWorld(pos.dim).getPlayerChunkMap().isPlayerWatchingChunk(player, pos.x, pos.z);
+    // converts a ward storage index (x + y * 16 + z * 16 * 256) into one that sorts by column first
+    protected static int toColumnKey(int index) {
+        return (((index & 15) + (index >>> 12) * 16) << 8) | ((index >>> 4) & 255);
+    }
+    
+    protected static int fromColumnKey(int key) {
+        return ((key >>> 8) & 15) + (key & 255) * 16 + (key >>> 12) * 16 * 256;
     }
     
     @SubscribeEvent(priority = EventPriority.LOWEST)
     public void onServerTick(TickEvent.ServerTickEvent event) {
         if (event.phase == Phase.END) {
-            for (Map.Entry<DimensionalChunkPos, WardUpdateEntry> entry : WardSyncManager.getEntries()) {
+            for (Map.Entry<DimensionalChunkPos, ChunkWardUpdate> entry : WardSyncManager.getEntries()) {
                 DimensionalChunkPos pos = entry.getKey();
-                if (entry.getValue().update != null) {
-                    for (EntityPlayerMP player : FMLCommonHandler.instance().getMinecraftServerInstance().getPlayerList().getPlayers()) {
-                        if (player.dimension == pos.dim && isPlayerInChunkRange(pos, player)) {
-                            byte send = 0;
-                            if (entry.getValue().update.equals(player.getUniqueID()))
-                                send = 1;
-                            else if (!entry.getValue().update.equals(IWardStorageServer.NIL_UUID))
-                                send = 2;
-                            
-                            TANetwork.INSTANCE.sendTo(new PacketWardUpdate(entry.getValue().pos, send), player);
+                WorldServer world = DimensionManager.getWorld(pos.dim);
+                if (world != null) {
+                    PlayerChunkMapEntry watchers = world.getPlayerChunkMap().getEntry(pos.x, pos.z);
+                    if (watchers != null && !watchers.getWatchingPlayers().isEmpty()) {
+                        ChunkWardUpdate update = entry.getValue();
+                        if (update.needsFullSync()) {
+                            Chunk chunk = world.getChunkProvider().getLoadedChunk(pos.x, pos.z);
+                            if (chunk != null) {
+                                IWardStorage storage = chunk.getCapability(CapabilityWardStorage.WARD_STORAGE, null);
+                                if (storage instanceof IWardStorageServer) {
+                                    for (EntityPlayerMP player : watchers.getWatchingPlayers()) {
+                                        NBTTagCompound sync = ((IWardStorageServer) storage).fullSyncToClient(chunk, player.getUniqueID(), true);
+                                        if (sync != null)
+                                            TANetwork.INSTANCE.sendTo(new PacketFullWardSync(sync), player);
+                                    }
+                                }
+                            }
                         }
-                    }
-                }
-                else {
-                    World world = DimensionManager.getWorld(pos.dim);
-                    if (world != null && world.isBlockLoaded(entry.getValue().pos)) {
-                        Chunk chunk = world.getChunk(pos.x, pos.z);
-                        IWardStorage storage = chunk.getCapability(CapabilityWardStorage.WARD_STORAGE, null);
-                        if (storage instanceof IWardStorageServer) {
-                            for (EntityPlayerMP player : FMLCommonHandler.instance().getMinecraftServerInstance().getPlayerList().getPlayers()) {
-                                if (player.dimension == pos.dim && isPlayerInChunkRange(pos, player)) {
-                                    NBTTagCompound sync = ((IWardStorageServer) storage).fullSyncToClient(chunk, player.getUniqueID(), true);
-                                    if (sync != null)
-                                        TANetwork.INSTANCE.sendTo(new PacketFullWardSync(sync), player);
+                        else {
+                            int[] keys = new int[update.getChanges().size()];
+                            int i = 0;
+                            for (int index : update.getChanges().keySet())
+                                keys[i++] = toColumnKey(index);
+                            
+                            Arrays.sort(keys);
+                            UUID[] owners = new UUID[keys.length];
+                            for (i = 0; i < keys.length; ++i)
+                                owners[i] = update.getChanges().get(fromColumnKey(keys[i]));
+                            
+                            byte[] values = new byte[keys.length];
+                            for (EntityPlayerMP player : watchers.getWatchingPlayers()) {
+                                UUID id = player.getUniqueID();
+                                for (i = 0; i < owners.length; ++i) {
+                                    if (owners[i].equals(id))
+                                        values[i] = 1;
+                                    else if (!owners[i].equals(IWardStorageServer.NIL_UUID))
+                                        values[i] = 2;
+                                    else
+                                        values[i] = 0;
                                 }
+                                
+                                TANetwork.INSTANCE.sendTo(new PacketPartialWardSync(pos.x, pos.z, keys, values), player);
                             }
                         }
                     }
@@ -137,25 +157,16 @@ public class WardEventHandler {
     }
     
     @SubscribeEvent(priority = EventPriority.HIGH)
-    public void onWorldTick(TickEvent.WorldTickEvent event) {
-        if (!event.world.isRemote && event.phase == Phase.START && event.world instanceof WorldServer) {
-            WorldServer world = (WorldServer) event.world;
-            try {
-                Iterator<NextTickListEntry> iterator = world.pendingTickListEntriesHashSet.iterator();
-                while (iterator.hasNext()) {
-                    NextTickListEntry entry = iterator.next();
-                    // need to get chunk without resetting unload flag
-                    Chunk chunk = world.getChunkProvider().loadedChunks.get(ChunkPos.asLong(entry.position.getX() >> 4, entry.position.getZ() >> 4));
-                    if (chunk != null) {
-                        IWardStorage storage = chunk.getCapability(CapabilityWardStorage.WARD_STORAGE, null);
-                        if (storage != null && storage.hasWard(entry.position)) {
-                            iterator.remove();
-                            world.pendingTickListEntriesTreeSet.remove(entry);
-                        }
-                    }
-                }
+    public void onUntrackChunk(ChunkWatchEvent.UnWatch event) {
+        Chunk chunk = event.getChunkInstance();
+        if (chunk != null && event.getPlayer() != null && chunk.getWorld() instanceof WorldServer) {
+            IWardStorage storage = chunk.getCapability(CapabilityWardStorage.WARD_STORAGE, null);
+            if (storage instanceof IWardStorageServer) {
+                // the player is already removed from the watching players when this is fired
+                PlayerChunkMapEntry watchers = ((WorldServer) chunk.getWorld()).getPlayerChunkMap().getEntry(chunk.x, chunk.z);
+                ((IWardStorageServer) storage).releaseClientView(event.getPlayer().getUniqueID(),
+                        watchers == null || watchers.getWatchingPlayers().isEmpty());
             }
-            catch (ConcurrentModificationException ex) {} // this happened to me once and was never reproduced again :(
         }
     }
     
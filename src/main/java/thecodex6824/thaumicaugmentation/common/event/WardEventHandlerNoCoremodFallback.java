@@ -21,7 +21,9 @@
 package thecodex6824.thaumicaugmentation.common.event;
 
 import java.lang.reflect.Field;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -32,9 +34,12 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.RayTraceResult.Type;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.NextTickListEntry;
+import net.minecraft.world.WorldServer;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.util.FakePlayer;
 import net.minecraftforge.event.entity.player.PlayerEvent;
@@ -84,11 +89,35 @@ public class WardEventHandlerNoCoremodFallback extends WardEventHandler {
         }
     }
     
-    @Override
     @SubscribeEvent(priority = EventPriority.HIGH)
     public void onWorldTick(TickEvent.WorldTickEvent event) {
-        super.onWorldTick(event);
-        if (!event.world.isRemote && event.phase == Phase.END) {
+        if (!event.world.isRemote && event.phase == Phase.START && event.world instanceof WorldServer) {
+            // without the coremod there is no way to filter scheduled updates as they run,
+            // so they have to be removed from the pending list ahead of time
+            WorldServer world = (WorldServer) event.world;
+            try {
+                long lastChunk = Long.MIN_VALUE;
+                IWardStorage lastStorage = null;
+                Iterator<NextTickListEntry> iterator = world.pendingTickListEntriesHashSet.iterator();
+                while (iterator.hasNext()) {
+                    NextTickListEntry entry = iterator.next();
+                    long chunkPos = ChunkPos.asLong(entry.position.getX() >> 4, entry.position.getZ() >> 4);
+                    if (chunkPos != lastChunk) {
+                        // need to get chunk without resetting unload flag
+                        Chunk chunk = world.getChunkProvider().loadedChunks.get(chunkPos);
+                        lastStorage = chunk != null ? chunk.getCapability(CapabilityWardStorage.WARD_STORAGE, null) : null;
+                        lastChunk = chunkPos;
+                    }
+                    
+                    if (lastStorage != null && lastStorage.mayHaveWardInSection(entry.position) && lastStorage.hasWard(entry.position)) {
+                        iterator.remove();
+                        world.pendingTickListEntriesTreeSet.remove(entry);
+                    }
+                }
+            }
+            catch (ConcurrentModificationException ex) {} // this happened to me once and was never reproduced again :(
+        }
+        else if (!event.world.isRemote && event.phase == Phase.END) {
             ConcurrentHashMap<Integer, Task> tasks = TaskHandler.tasks.get(event.world.provider.getDimension());
             if (tasks != null) {
                 for (Map.Entry<Integer, Task> entry : tasks.entrySet()) {
@@ -0,0 +1,106 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.common.event;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import thecodex6824.thaumicaugmentation.api.ThaumicAugmentationAPI;
+
+/**
+ * Creates a world event listener for every world as it loads, and removes it again when that world unloads.
+ * Listeners are kept per world instance, so the client world and the integrated server world of the same
+ * dimension each get their own.
+ * @param <T> The type of listener held for each world
+ */
+@EventBusSubscriber(modid = ThaumicAugmentationAPI.MODID)
+public final class WorldListenerRegistry<T extends IWorldEventListener> {
+    
+    private static final CopyOnWriteArrayList<WorldListenerRegistry<?>> REGISTRIES = new CopyOnWriteArrayList<>();
+    
+    private final Function<World, T> factory;
+    private final boolean clientWorlds;
+    // on the integrated server, client worlds are loaded and used on a different thread than server worlds
+    private final Reference2ObjectOpenHashMap<World, T> server;
+    private final Reference2ObjectOpenHashMap<World, T> client;
+    
+    /**
+     * Creates a new registry. Worlds that are already loaded when this is called will not get listeners,
+     * so registries should be created during mod loading, such as in a static field of an event subscriber.
+     * @param factory Creates the listener for a world that was just loaded
+     * @param clientWorlds If client worlds should get listeners as well as server worlds
+     */
+    public WorldListenerRegistry(Function<World, T> factory, boolean clientWorlds) {
+        this.factory = factory;
+        this.clientWorlds = clientWorlds;
+        server = new Reference2ObjectOpenHashMap<>();
+        client = new Reference2ObjectOpenHashMap<>();
+        REGISTRIES.add(this);
+    }
+    
+    /**
+     * Returns the listener for the given world.
+     * @param world The world to get the listener for
+     * @return The listener, or null if the world does not have one
+     */
+    @Nullable
+    public T get(World world) {
+        return (world.isRemote ? client : server).get(world);
+    }
+    
+    private void addWorld(World world) {
+        if (!world.isRemote || clientWorlds) {
+            Reference2ObjectOpenHashMap<World, T> map = world.isRemote ? client : server;
+            if (!map.containsKey(world)) {
+                T listener = factory.apply(world);
+                map.put(world, listener);
+                world.addEventListener(listener);
+            }
+        }
+    }
+    
+    private void removeWorld(World world) {
+        T listener = (world.isRemote ? client : server).remove(world);
+        if (listener != null)
+            world.removeEventListener(listener);
+    }
+    
+    @SubscribeEvent
+    public static void onWorldLoad(WorldEvent.Load event) {
+        for (WorldListenerRegistry<?> registry : REGISTRIES)
+            registry.addWorld(event.getWorld());
+    }
+    
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        for (WorldListenerRegistry<?> registry : REGISTRIES)
+            registry.removeWorld(event.getWorld());
+    }
+    
+}
@@ -25,9 +25,6 @@ import org.dimdev.jeid.INewChunk;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
-import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
-import thecodex6824.thaumicaugmentation.common.network.PacketBiomeUpdate;
-import thecodex6824.thaumicaugmentation.common.network.TANetwork;
 
 public class IntegrationJEID implements IIntegrationHolder {
 
@@ -44,13 +41,6 @@ public class IntegrationJEID implements IIntegrationHolder {
         INewChunk newChunk = (INewChunk) world.getChunk(pos);
         int[] biomes = newChunk.getIntBiomeArray();
         biomes[(pos.getZ() & 15) << 4 | (pos.getX() & 15)] = Biome.getIdForBiome(newBiome);
-        if (!world.isRemote) {
-            world.markChunkDirty(pos, null);
-            TargetPoint point = new TargetPoint(world.provider.getDimension(), pos.getX(), pos.getY(), pos.getZ(), 64.0);
-            TANetwork.INSTANCE.sendToAllTracking(new PacketBiomeUpdate(pos.getX(), pos.getZ(), Biome.getIdForBiome(newBiome)), point);
-        }
-        else
-            world.markBlocksDirtyVertical(pos.getX(), pos.getZ(), 0, 255);
     }
     
 }
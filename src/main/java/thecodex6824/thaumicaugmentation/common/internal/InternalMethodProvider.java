@@ -22,14 +22,17 @@ package thecodex6824.thaumicaugmentation.common.internal;
 
 import java.util.Collection;
 
-import com.google.common.base.Predicates;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.MultimapBuilder;
-
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
+import net.minecraft.server.management.PlayerChunkMapEntry;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 import net.minecraftforge.common.DimensionManager;
 import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
@@ -37,6 +40,8 @@ import thecodex6824.thaumicaugmentation.api.impetus.node.IImpetusNode;
 import thecodex6824.thaumicaugmentation.api.internal.IInternalMethodProvider;
 import thecodex6824.thaumicaugmentation.api.util.DimensionalBlockPos;
 import thecodex6824.thaumicaugmentation.common.TAConfigHolder;
+import thecodex6824.thaumicaugmentation.common.event.ImpetusLineOfSightCache;
+import thecodex6824.thaumicaugmentation.common.event.ImpetusTransactionAccumulator;
 import thecodex6824.thaumicaugmentation.common.item.ItemCustomCasterEffectProvider;
 import thecodex6824.thaumicaugmentation.common.item.ItemCustomCasterStrengthProvider;
 import thecodex6824.thaumicaugmentation.common.network.PacketFullImpetusNodeSync;
@@ -79,29 +84,51 @@ public class InternalMethodProvider implements IInternalMethodProvider {
     @Override
     public void syncImpetusTransaction(Collection<IImpetusNode> path) {
         DimensionalBlockPos[] positions = new DimensionalBlockPos[path.size()];
-        Multimap<Integer, ChunkPos> chunks = MultimapBuilder.hashKeys().hashSetValues().build();
+        Int2ObjectOpenHashMap<LongOpenHashSet> chunks = new Int2ObjectOpenHashMap<>();
         int i = 0;
         for (IImpetusNode node : path) {
             DimensionalBlockPos newPos = new DimensionalBlockPos(node.getLocation().getPos().toImmutable(), node.getLocation().getDimension());
             positions[i] = newPos;
             ++i;
-            chunks.put(newPos.getDimension(), new ChunkPos(newPos.getPos()));
+            LongOpenHashSet dimChunks = chunks.get(newPos.getDimension());
+            if (dimChunks == null) {
+                dimChunks = new LongOpenHashSet();
+                chunks.put(newPos.getDimension(), dimChunks);
+            }
+            
+            dimChunks.add(ChunkPos.asLong(newPos.getPos().getX() >> 4, newPos.getPos().getZ() >> 4));
         }
         
-        PacketImpetusTransaction packet = new PacketImpetusTransaction(positions);
-        for (int dim : chunks.keySet()) {
-            WorldServer world = DimensionManager.getWorld(dim);
+        // only players watching at least one chunk of the path need to know about it
+        ReferenceOpenHashSet<EntityPlayerMP> recipients = new ReferenceOpenHashSet<>();
+        for (Int2ObjectMap.Entry<LongOpenHashSet> entry : chunks.int2ObjectEntrySet()) {
+            WorldServer world = DimensionManager.getWorld(entry.getIntKey());
             if (world != null) {
-                for (EntityPlayerMP player : world.getPlayers(EntityPlayerMP.class, Predicates.alwaysTrue())) {
-                    for (ChunkPos pos : chunks.get(dim)) {
-                        if (world.getPlayerChunkMap().isPlayerWatchingChunk(player, pos.x, pos.z)) {
-                            TANetwork.INSTANCE.sendTo(packet, player);
-                            break;
-                        }
-                    }
+                LongIterator iterator = entry.getValue().iterator();
+                while (iterator.hasNext()) {
+                    long chunk = iterator.nextLong();
+                    PlayerChunkMapEntry watchers = world.getPlayerChunkMap().getEntry((int) chunk, (int) (chunk >> 32));
+                    if (watchers != null)
+                        recipients.addAll(watchers.getWatchingPlayers());
                 }
             }
         }
+        
+        if (!recipients.isEmpty()) {
+            PacketImpetusTransaction packet = new PacketImpetusTransaction(positions);
+            for (EntityPlayerMP player : recipients)
+                TANetwork.INSTANCE.sendTo(packet, player);
+        }
+    }
+    
+    @Override
+    public void queueImpetusTransaction(Collection<IImpetusNode> path, long energy) {
+        ImpetusTransactionAccumulator.queueTransaction(path, energy);
+    }
+    
+    @Override
+    public boolean checkImpetusLineOfSight(World sharedWorld, IImpetusNode node1, IImpetusNode node2) {
+        return ImpetusLineOfSightCache.nodesPassCollisionCheck(sharedWorld, node1, node2);
     }
     
     @Override
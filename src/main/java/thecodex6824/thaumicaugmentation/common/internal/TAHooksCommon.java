@@ -20,6 +20,7 @@
 
 package thecodex6824.thaumicaugmentation.common.internal;
 
+import java.lang.ref.WeakReference;
 import java.util.Random;
 
 import javax.annotation.Nullable;
@@ -27,6 +28,7 @@ import javax.annotation.Nullable;
 import baubles.api.BaubleType;
 import baubles.api.cap.BaublesCapabilities;
 import baubles.api.cap.IBaublesItemHandler;
+import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
@@ -62,14 +64,36 @@ public final class TAHooksCommon {
 
     private TAHooksCommon() {}
     
+    private static final class LastChunkCache {
+        
+        // weak so a cached chunk does not keep an unloaded world around
+        public WeakReference<Chunk> chunk = new WeakReference<>(null);
+        public IWardStorage storage;
+        
+    }
+    
+    // hooks are called from both the client and server threads, so each gets its own cache
+    // calls tend to come in bursts for the same world and chunk, so the last one is cached
+    private static final ThreadLocal<LastChunkCache> LAST_CHUNK = ThreadLocal.withInitial(LastChunkCache::new);
+    
     private static boolean hasWard(World world, BlockPos pos) {
-        if (world != null && pos != null && world.getChunkProvider() != null && world.isBlockLoaded(pos)) {
-            Chunk chunk = world.getChunk(pos);
-            if (chunk != null) {
-                IWardStorage ward = chunk.getCapability(CapabilityWardStorage.WARD_STORAGE, null);
-                if (ward != null)
-                    return ward.hasWard(pos);
+        if (world != null && pos != null) {
+            LastChunkCache cache = LAST_CHUNK.get();
+            Chunk chunk = cache.chunk.get();
+            if (chunk == null || chunk.getWorld() != world || chunk.x != pos.getX() >> 4 || chunk.z != pos.getZ() >> 4 || !chunk.isLoaded()) {
+                if (world.getChunkProvider() == null || !world.isBlockLoaded(pos))
+                    return false;
+                
+                chunk = world.getChunk(pos);
+                if (chunk == null)
+                    return false;
+                
+                cache.chunk = new WeakReference<>(chunk);
+                cache.storage = chunk.getCapability(CapabilityWardStorage.WARD_STORAGE, null);
             }
+            
+            IWardStorage ward = cache.storage;
+            return ward != null && ward.mayHaveWardInSection(pos) && ward.hasWard(pos);
         }
         
         return false;
@@ -109,6 +133,11 @@ public final class TAHooksCommon {
         return !hasWard(world, pos);
     }
     
+    public static void tickBlockIfNotWarded(Block block, World world, BlockPos pos, IBlockState state, Random rand) {
+        if (!hasWard(world, pos))
+            block.updateTick(world, pos, state, rand);
+    }
+    
     public static void checkElytra(ItemStack chestArmorStack, EntityPlayerMP player) {
         IBaublesItemHandler baubles = player.getCapability(BaublesCapabilities.CAPABILITY_BAUBLES, null);
         if (baubles != null) {
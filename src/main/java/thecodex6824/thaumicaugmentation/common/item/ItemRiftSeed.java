@@ -26,7 +26,6 @@ import javax.annotation.Nullable;
 
 import net.minecraft.client.util.ITooltipFlag;
 import net.minecraft.creativetab.CreativeTabs;
-import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.IItemPropertyGetter;
@@ -51,6 +50,7 @@ import thaumcraft.common.config.ModConfig;
 import thaumcraft.common.entities.EntityFluxRift;
 import thecodex6824.thaumicaugmentation.api.TAConfig;
 import thecodex6824.thaumicaugmentation.api.TAItems;
+import thecodex6824.thaumicaugmentation.common.event.FluxRiftTracker;
 import thecodex6824.thaumicaugmentation.common.item.prefab.ItemTABase;
 
 public class ItemRiftSeed extends ItemTABase {
@@ -74,13 +74,6 @@ public class ItemRiftSeed extends ItemTABase {
         });
     }
 
-    protected <T extends Entity> List<T> getEntitiesInRange(Class<T> entityClass, World world, Vec3d pos, double radius) {
-        List<T> toReturn = world.getEntitiesWithinAABB(entityClass, new AxisAlignedBB(pos.x, pos.y, pos.z, 
-                pos.x, pos.y, pos.z).grow(radius));
-
-        return toReturn;
-    }
-
     @Override
     public EnumActionResult onItemUse(EntityPlayer player, World world, BlockPos pos, EnumHand hand,
             EnumFacing facing, float hitX, float hitY, float hitZ) {
@@ -90,7 +83,8 @@ public class ItemRiftSeed extends ItemTABase {
             Vec3d position = new Vec3d(offset.getX() + 0.5, offset.getY() + 0.5, offset.getZ() + 0.5);
             ItemStack stack = player.getHeldItem(hand);
             if (stack.getMetadata() == 0 && (!ModConfig.CONFIG_MISC.wussMode || TAConfig.allowWussRiftSeed.getValue()) &&
-                    getEntitiesInRange(EntityFluxRift.class, world, position, 32.0).isEmpty()) {
+                    FluxRiftTracker.getRiftsInArea(world, new AxisAlignedBB(position.x, position.y, position.z,
+                            position.x, position.y, position.z).grow(32.0)).isEmpty()) {
                 
                 EntityFluxRift rift = new EntityFluxRift(world);
                 rift.setRiftSeed(world.rand.nextInt());
@@ -21,46 +21,69 @@
 package thecodex6824.thaumicaugmentation.common.network;
 
 import io.netty.buffer.ByteBuf;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 
 public class PacketBiomeUpdate implements IMessage {
 
-    protected int x;
-    protected int z;
-    protected int biome;
+    protected int chunkX;
+    protected int chunkZ;
+    // one bit per column, in the same order as the chunk biome array
+    protected long[] changed;
+    protected int[] biomes;
     
-    public PacketBiomeUpdate() {}
+    public PacketBiomeUpdate() {
+        changed = new long[4];
+        biomes = new int[256];
+    }
     
-    public PacketBiomeUpdate(int x, int z, int newBiome) {
-        this.x = x;
-        this.z = z;
-        biome = newBiome;
+    public PacketBiomeUpdate(int chunkX, int chunkZ, long[] changedColumns, int[] newBiomes) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        changed = changedColumns;
+        biomes = newBiomes;
     }
     
     @Override
     public void fromBytes(ByteBuf buf) {
-        x = buf.readInt();
-        z = buf.readInt();
-        biome = buf.readInt();
+        chunkX = buf.readInt();
+        chunkZ = buf.readInt();
+        for (int i = 0; i < changed.length; ++i)
+            changed[i] = buf.readLong();
+        
+        for (int i = 0; i < biomes.length; ++i) {
+            if (isColumnChanged(i))
+                biomes[i] = ByteBufUtils.readVarInt(buf, 5);
+        }
     }
     
     @Override
     public void toBytes(ByteBuf buf) {
-        buf.writeInt(x);
-        buf.writeInt(z);
-        buf.writeInt(biome);
+        buf.writeInt(chunkX);
+        buf.writeInt(chunkZ);
+        for (long l : changed)
+            buf.writeLong(l);
+        
+        for (int i = 0; i < biomes.length; ++i) {
+            if (isColumnChanged(i))
+                ByteBufUtils.writeVarInt(buf, biomes[i], 5);
+        }
+    }
+    
+    public int getChunkX() {
+        return chunkX;
     }
     
-    public int getX() {
-        return x;
+    public int getChunkZ() {
+        return chunkZ;
     }
     
-    public int getZ() {
-        return z;
+    public boolean isColumnChanged(int index) {
+        return (changed[index >>> 6] & (1L << (index & 63))) != 0;
     }
     
-    public int getBiome() {
-        return biome;
+    public int getBiome(int index) {
+        return biomes[index];
     }
     
 }
@@ -20,16 +20,16 @@
 
 package thecodex6824.thaumicaugmentation.common.network;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import thecodex6824.thaumicaugmentation.ThaumicAugmentation;
 import thecodex6824.thaumicaugmentation.api.util.DimensionalBlockPos;
@@ -39,7 +39,13 @@ public class PacketImpetusTransaction implements IMessage {
     // if someone needs to increase this sometime, here ya go
     public static int maxPathLength = 1024;
     
+    // paths encoded to more bytes than this are compressed
+    // most paths are only a handful of nodes, where compression only makes the packet bigger
+    public static int compressionThreshold = 256;
+    
     private DimensionalBlockPos[] positions;
+    // the same packet is sent to every player watching the path, so it is only encoded once
+    private ByteBuf encoded;
     
     public PacketImpetusTransaction() {}
     
@@ -47,40 +53,96 @@ public class PacketImpetusTransaction implements IMessage {
         positions = Arrays.copyOf(path, path.length);
     }
     
-    @Override
-    public void fromBytes(ByteBuf buf) {
-        byte[] buffer = new byte[Math.min(buf.readInt(), maxPathLength * 16)];
-        buf.readBytes(buffer);
-        try (DataInputStream stream = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(buffer)))) {
-            positions = new DimensionalBlockPos[Math.min(stream.readInt(), maxPathLength)];
-            for (int i = 0; i < positions.length; ++i)
-                positions[i] = new DimensionalBlockPos(stream.readInt(), stream.readInt(), stream.readInt(), stream.readInt());
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+    
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    // positions are stored relative to the previous one, and the dimension is only written when it changes
+    private void writePath(ByteBuf buf) {
+        ByteBufUtils.writeVarInt(buf, positions.length, 5);
+        int lastX = 0, lastY = 0, lastZ = 0;
+        for (int i = 0; i < positions.length; ++i) {
+            DimensionalBlockPos pos = positions[i];
+            boolean newDim = i == 0 || pos.getDimension() != positions[i - 1].getDimension();
+            buf.writeBoolean(newDim);
+            if (newDim)
+                ByteBufUtils.writeVarInt(buf, zigZag(pos.getDimension()), 5);
+            
+            ByteBufUtils.writeVarInt(buf, zigZag(pos.getPos().getX() - lastX), 5);
+            ByteBufUtils.writeVarInt(buf, zigZag(pos.getPos().getY() - lastY), 5);
+            ByteBufUtils.writeVarInt(buf, zigZag(pos.getPos().getZ() - lastZ), 5);
+            lastX = pos.getPos().getX();
+            lastY = pos.getPos().getY();
+            lastZ = pos.getPos().getZ();
         }
-        catch (IOException ex) {
-            ThaumicAugmentation.getLogger().error("Unable to deserialize PacketImpetusTransaction: " + ex.getMessage());
+    }
+    
+    private void readPath(ByteBuf buf) {
+        positions = new DimensionalBlockPos[Math.min(ByteBufUtils.readVarInt(buf, 5), maxPathLength)];
+        int x = 0, y = 0, z = 0, dim = 0;
+        for (int i = 0; i < positions.length; ++i) {
+            if (buf.readBoolean())
+                dim = unZigZag(ByteBufUtils.readVarInt(buf, 5));
+            
+            x += unZigZag(ByteBufUtils.readVarInt(buf, 5));
+            y += unZigZag(ByteBufUtils.readVarInt(buf, 5));
+            z += unZigZag(ByteBufUtils.readVarInt(buf, 5));
+            positions[i] = new DimensionalBlockPos(x, y, z, dim);
         }
     }
     
-    @Override
-    public void toBytes(ByteBuf buf) {
-        try (ByteArrayOutputStream stream = new ByteArrayOutputStream(4 + positions.length * 4 * 4);
-                DataOutputStream data = new DataOutputStream(new GZIPOutputStream(stream))) {
-            data.writeInt(positions.length);
-            for (DimensionalBlockPos pos : positions) {
-                data.writeInt(pos.getPos().getX());
-                data.writeInt(pos.getPos().getY());
-                data.writeInt(pos.getPos().getZ());
-                data.writeInt(pos.getDimension());
+    private ByteBuf encode() {
+        ByteBuf path = Unpooled.buffer(8 + positions.length * 4);
+        writePath(path);
+        if (path.readableBytes() <= compressionThreshold) {
+            ByteBuf result = Unpooled.buffer(path.readableBytes() + 1);
+            result.writeBoolean(false);
+            result.writeBytes(path);
+            return result;
+        }
+        else {
+            ByteBuf result = Unpooled.buffer(path.readableBytes() / 2 + 1);
+            result.writeBoolean(true);
+            try (GZIPOutputStream stream = new GZIPOutputStream(new ByteBufOutputStream(result))) {
+                path.readBytes(stream, path.readableBytes());
+            }
+            catch (IOException ex) {
+                ThaumicAugmentation.getLogger().error("Unable to serialize PacketImpetusTransaction: " + ex.getMessage());
             }
             
-            data.close();
-            byte[] buffer = stream.toByteArray();
-            buf.writeInt(buffer.length);
-            buf.writeBytes(buffer);
+            return result;
         }
-        catch (IOException ex) {
-            ThaumicAugmentation.getLogger().error("Unable to serialize PacketImpetusTransaction: " + ex.getMessage());
+    }
+    
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        if (buf.readBoolean()) {
+            ByteBuf path = Unpooled.buffer();
+            try (GZIPInputStream stream = new GZIPInputStream(new ByteBufInputStream(buf))) {
+                // limit how much can be decompressed, in case of a malicious packet
+                int limit = maxPathLength * 21 + 5;
+                while (path.writerIndex() < limit && path.writeBytes(stream, Math.min(4096, limit - path.writerIndex())) > 0);
+            }
+            catch (IOException ex) {
+                ThaumicAugmentation.getLogger().error("Unable to deserialize PacketImpetusTransaction: " + ex.getMessage());
+            }
+            
+            readPath(path);
         }
+        else
+            readPath(buf);
+    }
+    
+    @Override
+    public void toBytes(ByteBuf buf) {
+        if (encoded == null)
+            encoded = encode();
+        
+        buf.writeBytes(encoded, encoded.readerIndex(), encoded.readableBytes());
     }
     
     public DimensionalBlockPos[] getPositions() {
@@ -0,0 +1,104 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package thecodex6824.thaumicaugmentation.common.network;
+
+import io.netty.buffer.ByteBuf;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraftforge.fml.common.network.ByteBufUtils;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+
+// carries ward changes for many blocks in one chunk, run-length encoded along the y axis
+// keys passed in are ((x + z * 16) << 8) | y and must be sorted, so runs in a column end up next to each other
+public class PacketPartialWardSync implements IMessage {
+
+    private int chunkX;
+    private int chunkZ;
+    private int[] runs;
+    
+    public PacketPartialWardSync() {}
+    
+    public PacketPartialWardSync(int chunkX, int chunkZ, int[] keys, byte[] values) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        IntArrayList encoded = new IntArrayList();
+        int i = 0;
+        while (i < keys.length) {
+            int end = i + 1;
+            while (end < keys.length && keys[end] == keys[end - 1] + 1 && (keys[end] >>> 8) == (keys[i] >>> 8) && values[end] == values[i])
+                ++end;
+            
+            encoded.add((keys[i] << 10) | ((end - i - 1) << 2) | (values[i] & 3));
+            i = end;
+        }
+        
+        runs = encoded.toIntArray();
+    }
+    
+    @Override
+    public void fromBytes(ByteBuf buf) {
+        chunkX = buf.readInt();
+        chunkZ = buf.readInt();
+        runs = new int[ByteBufUtils.readVarInt(buf, 5)];
+        for (int i = 0; i < runs.length; ++i)
+            runs[i] = buf.readInt();
+    }
+    
+    @Override
+    public void toBytes(ByteBuf buf) {
+        buf.writeInt(chunkX);
+        buf.writeInt(chunkZ);
+        ByteBufUtils.writeVarInt(buf, runs.length, 5);
+        for (int run : runs)
+            buf.writeInt(run);
+    }
+    
+    public int getChunkX() {
+        return chunkX;
+    }
+    
+    public int getChunkZ() {
+        return chunkZ;
+    }
+    
+    public int getNumRuns() {
+        return runs.length;
+    }
+    
+    public int getRunX(int run) {
+        return (chunkX << 4) + ((runs[run] >>> 18) & 15);
+    }
+    
+    public int getRunZ(int run) {
+        return (chunkZ << 4) + ((runs[run] >>> 22) & 15);
+    }
+    
+    public int getRunStartY(int run) {
+        return (runs[run] >>> 10) & 255;
+    }
+    
+    public int getRunLength(int run) {
+        return ((runs[run] >>> 2) & 255) + 1;
+    }
+    
+    public byte getRunValue(int run) {
+        return (byte) (runs[run] & 3);
+    }
+    
+}
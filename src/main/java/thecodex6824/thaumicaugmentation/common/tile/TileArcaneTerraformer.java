@@ -20,9 +20,8 @@
 
 package thecodex6824.thaumicaugmentation.common.tile;
 
-import java.util.Deque;
+import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -33,6 +32,7 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.math.DoubleMath;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
@@ -71,12 +71,12 @@ import thecodex6824.thaumicaugmentation.ThaumicAugmentation;
 import thecodex6824.thaumicaugmentation.api.TAConfig;
 import thecodex6824.thaumicaugmentation.api.impetus.node.CapabilityImpetusNode;
 import thecodex6824.thaumicaugmentation.api.impetus.node.ConsumeResult;
-import thecodex6824.thaumicaugmentation.api.impetus.node.IImpetusNode;
 import thecodex6824.thaumicaugmentation.api.impetus.node.NodeHelper;
 import thecodex6824.thaumicaugmentation.api.impetus.node.prefab.SimpleImpetusConsumer;
 import thecodex6824.thaumicaugmentation.api.item.CapabilityBiomeSelector;
 import thecodex6824.thaumicaugmentation.api.item.IBiomeSelector;
 import thecodex6824.thaumicaugmentation.api.util.DimensionalBlockPos;
+import thecodex6824.thaumicaugmentation.common.event.AuraRegenerationQueue;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect.ParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.PacketTerraformerWork;
@@ -100,8 +100,16 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
     protected boolean impetusPaid, essentiaPaid, visPaid;
     protected Object2IntOpenHashMap<Aspect> essentia;
     protected HashSet<ChunkPos> chunks;
+    // chunks queued for aura regeneration that have not been done yet, saved so that they are queued again after a restart
+    protected HashSet<ChunkPos> pendingAura;
     protected boolean circle;
     protected int ticks;
+    // only used when converting several columns per operation
+    protected ArrayList<BlockPos> targets;
+    protected ArrayList<Biome> targetBiomes;
+    protected IntArrayList targetSteps;
+    protected int nextTarget;
+    protected boolean targetsValid;
     
     public TileArcaneTerraformer() {
         super();
@@ -128,7 +136,11 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
         essentia = new Object2IntOpenHashMap<>(5);
         circle = true;
         chunks = new HashSet<>();
+        pendingAura = new HashSet<>();
         ticks = ThreadLocalRandom.current().nextInt(20);
+        targets = new ArrayList<>();
+        targetBiomes = new ArrayList<>();
+        targetSteps = new IntArrayList();
     }
     
     @Nullable
@@ -170,6 +182,7 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
     
     public void setRadius(int radius) {
         this.radius = Math.max(Math.min(radius, 32), 1);
+        invalidateTargets();
         if (!world.isRemote) {
             markDirty();
             world.notifyBlockUpdate(pos, world.getBlockState(pos), world.getBlockState(pos), 2);
@@ -182,6 +195,7 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
     
     public void setCircle(boolean circle) {
         this.circle = circle;
+        invalidateTargets();
         if (!world.isRemote) {
             markDirty();
             world.notifyBlockUpdate(pos, world.getBlockState(pos), world.getBlockState(pos), 2);
@@ -211,6 +225,7 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
                         currentPos.setPos(pos.getX(), pos.getY(), pos.getZ());
                         blocksChecked = 0;
                         chunks.clear();
+                        invalidateTargets();
                         markDirty();
                         world.playSound(null, pos, SoundsTC.craftstart, SoundCategory.BLOCKS, 0.5F, 1.0F);
                         world.notifyBlockUpdate(pos, world.getBlockState(pos), world.getBlockState(pos), 2);
@@ -224,18 +239,190 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
         return true;
     }
     
+    protected static Object2IntOpenHashMap<Aspect> getEssentiaCost(Biome biome) {
+        try {
+            return BIOME_COSTS.get(biome, () -> {
+                Object2IntOpenHashMap<Aspect> map = new Object2IntOpenHashMap<>();
+                map.put(Aspect.EXCHANGE, 1);
+                for (BiomeDictionary.Type type : BiomeDictionary.getTypes(biome)) {
+                    Aspect aspect = BiomeUtil.getAspectForType(type, Aspect.EXCHANGE);
+                    if (aspect != null) {
+                        if (aspect == Aspect.ORDER || aspect == Aspect.ENTROPY)
+                            map.addTo(Aspect.EXCHANGE, 1);
+                        else if (aspect.isPrimal() || aspect == Aspect.EXCHANGE)
+                            map.addTo(aspect, 1);
+                    }
+                }
+                
+                return map;
+            });
+        }
+        catch (ExecutionException ex) {
+            ThaumicAugmentation.getLogger().error("An exception was somehow thrown when it really should not have!");
+            throw new RuntimeException(ex);
+        }
+    }
+    
+    protected boolean isInRange(BlockPos check) {
+        return !circle || (check.getX() - pos.getX()) * (check.getX() - pos.getX()) + (check.getZ() - pos.getZ()) *
+                (check.getZ() - pos.getZ()) < radius * radius;
+    }
+    
+    protected int getTotalColumns() {
+        return (radius * 2 - 1) * (radius * 2 - 1) + 1;
+    }
+    
+    protected void advanceSpiral(MutableBlockPos current) {
+        if (Math.abs(current.getX() - pos.getX()) <= Math.abs(current.getZ() - pos.getZ()) && ((current.getX() - pos.getX()) != (current.getZ() - pos.getZ()) || (current.getX() - pos.getX()) >= 0))
+            current.setPos(current.getX() + ((current.getZ() - pos.getZ()) >= 0 ? 1 : -1), current.getY(), current.getZ());
+        else
+            current.setPos(current.getX(), current.getY(), current.getZ() + ((current.getX() - pos.getX()) >= 0 ? -1 : 1));
+    }
+    
+    protected void invalidateTargets() {
+        targets.clear();
+        targetBiomes.clear();
+        targetSteps.clear();
+        nextTarget = 0;
+        targetsValid = false;
+    }
+    
+    protected void computeTargets() {
+        invalidateTargets();
+        Biome selected = null;
+        Biome[] natural = null;
+        int minX = 0, minZ = 0, width = 0;
+        if (activeBiome.equals(IBiomeSelector.RESET)) {
+            // natural biomes come from the 1:4 scale generation layer, so the whole area is one small request
+            minX = ((pos.getX() - radius) >> 2) - 2;
+            minZ = ((pos.getZ() - radius) >> 2) - 2;
+            width = ((pos.getX() + radius) >> 2) - 2 - minX + 1;
+            int height = ((pos.getZ() + radius) >> 2) - 2 - minZ + 1;
+            natural = world.getBiomeProvider().getBiomesForGeneration(null, minX, minZ, width, height);
+        }
+        else
+            selected = Biome.REGISTRY.getObject(activeBiome);
+        
+        MutableBlockPos check = new MutableBlockPos(currentPos);
+        for (int step = blocksChecked; step < getTotalColumns(); ++step) {
+            if (isInRange(check)) {
+                Biome target = selected;
+                if (natural != null) {
+                    int index = ((check.getZ() >> 2) - 2 - minZ) * width + (check.getX() >> 2) - 2 - minX;
+                    target = index >= 0 && index < natural.length ? natural[index] : null;
+                }
+                
+                if (target != null && world.getBiome(check) != target) {
+                    targets.add(check.toImmutable());
+                    targetBiomes.add(target);
+                    targetSteps.add(step);
+                }
+            }
+            
+            advanceSpiral(check);
+        }
+        
+        targetsValid = true;
+    }
+    
+    protected void updateMultipleColumns(int maxColumns) {
+        if (!targetsValid)
+            computeTargets();
+        
+        // something else may have changed the biome since the targets were found
+        while (nextTarget < targets.size() && world.getBiome(targets.get(nextTarget)) == targetBiomes.get(nextTarget))
+            ++nextTarget;
+        
+        if (nextTarget >= targets.size()) {
+            blocksChecked = getTotalColumns();
+            endTerraforming(false);
+            return;
+        }
+        
+        int count = Math.min(maxColumns, targets.size() - nextTarget);
+        long impetusCost = TAConfig.terraformerImpetusCost.getValue();
+        if (impetusCost > 0)
+            count = (int) Math.min(count, consumer.consume(impetusCost * count, true).energyConsumed / impetusCost);
+        
+        Object2IntOpenHashMap<Aspect> totalEssentia = new Object2IntOpenHashMap<>();
+        for (int i = 0; i < count; ++i) {
+            Object2IntOpenHashMap<Aspect> needed = getEssentiaCost(targetBiomes.get(nextTarget + i));
+            boolean enoughEssentia = true;
+            for (Object2IntOpenHashMap.Entry<Aspect> entry : needed.object2IntEntrySet()) {
+                if (essentia.getInt(entry.getKey()) < totalEssentia.getInt(entry.getKey()) + entry.getIntValue()) {
+                    enoughEssentia = false;
+                    break;
+                }
+            }
+            
+            if (!enoughEssentia) {
+                count = i;
+                break;
+            }
+            
+            for (Object2IntOpenHashMap.Entry<Aspect> entry : needed.object2IntEntrySet())
+                totalEssentia.addTo(entry.getKey(), entry.getIntValue());
+        }
+        
+        if (count > 0)
+            count = Math.min(count, (int) ((AuraHelper.drainVis(world, pos, 0.5F * count, true) + 0.00001F) / 0.5F));
+        
+        if (count == 0) {
+            TANetwork.INSTANCE.sendToAllTracking(new PacketParticleEffect(ParticleEffect.VIS_OPERATION, pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5,
+                    0.0, 0.0, 0.0, 0.1, 0.15, 0.15, 0.85),
+                    new TargetPoint(world.provider.getDimension(), pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, 64.0));
+            return;
+        }
+        
+        if (impetusCost > 0)
+            NodeHelper.queueImpetusTransactions(consumer.consume(impetusCost * count, false).paths);
+        
+        for (int i = 0; i < count; ++i) {
+            for (Object2IntOpenHashMap.Entry<Aspect> entry : getEssentiaCost(targetBiomes.get(nextTarget + i)).object2IntEntrySet())
+                essentia.addTo(entry.getKey(), -entry.getIntValue());
+        }
+        
+        AuraHelper.drainVis(world, pos, 0.5F * count, false);
+        TANetwork.INSTANCE.sendToAllTracking(new PacketParticleEffect(ParticleEffect.VIS_OPERATION, pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5,
+                0.0, 0.0, 0.0, 0.7, 0.875, 0.875, 0.85),
+                new TargetPoint(world.provider.getDimension(), pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, 64.0));
+        
+        BlockPos column = null;
+        for (int i = 0; i < count; ++i) {
+            column = targets.get(nextTarget + i);
+            BiomeUtil.setBiome(world, column, targetBiomes.get(nextTarget + i));
+            chunks.add(new ChunkPos(column));
+            int y = world.getHeight(column.getX(), column.getZ());
+            TargetPoint track = new TargetPoint(world.provider.getDimension(), column.getX(), y, column.getZ(), 64.0);
+            TANetwork.INSTANCE.sendToAllTracking(new PacketParticleEffect(ParticleEffect.SPARK, column.getX(),
+                    y, column.getZ(), 8.0, Aspect.EXCHANGE.getColor()), track);
+            TANetwork.INSTANCE.sendToAllTracking(new PacketTerraformerWork(pos.getX(), pos.getY(), pos.getZ()), track);
+        }
+        
+        world.playSound(null, column, SoundsTC.zap, SoundCategory.BLOCKS, 0.15F, 1.0F);
+        currentPos.setPos(column.getX(), pos.getY(), column.getZ());
+        blocksChecked = targetSteps.getInt(nextTarget + count - 1);
+        nextTarget += count;
+        markDirty();
+    }
+    
     public void endTerraforming(boolean fail) {
         if (activeBiome != null) {
             activeBiome = null;
             currentPos.setPos(0, 0, 0);
             blocksChecked = 0;
+            // neighbours shared between chunks only get queued once
             for (ChunkPos c : chunks) {
-                BlockPos base = new BlockPos(c.getXStart(), pos.getY(), c.getZStart());
-                BiomeUtil.generateNewAura(world, base, true);
+                pendingAura.add(c);
                 for (EnumFacing f : EnumFacing.HORIZONTALS)
-                    BiomeUtil.generateNewAura(world, base.offset(f, 16), true);
+                    pendingAura.add(new ChunkPos(c.x + f.getXOffset(), c.z + f.getZOffset()));
             }
+            
+            for (ChunkPos c : pendingAura)
+                AuraRegenerationQueue.queueChunk(world, c.x, c.z);
+            
             chunks.clear();
+            invalidateTargets();
             markDirty();
             if (fail)
                 world.playSound(null, pos, SoundsTC.craftfail, SoundCategory.BLOCKS, 0.5F, 1.0F);
@@ -248,6 +435,11 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
     
     @Override
     public void update() {
+        if (!world.isRemote && ticks % 20 == 0 && !pendingAura.isEmpty()) {
+            if (pendingAura.removeIf(c -> !AuraRegenerationQueue.isChunkQueued(world, c.x, c.z)))
+                markDirty();
+        }
+        
         if (!world.isRemote && ticks++ % 5 == 0 && activeBiome != null) {
             ItemStack inv = inventory.getStackInSlot(0);
             if (inv.isEmpty() ||
@@ -257,11 +449,13 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
                 currentPos.setPos(0, 0, 0);
                 blocksChecked = 0;
                 chunks.clear();
+                invalidateTargets();
                 markDirty();
                 world.playSound(null, pos, SoundsTC.craftfail, SoundCategory.BLOCKS, 0.5F, 1.0F);
                 world.notifyBlockUpdate(pos, world.getBlockState(pos), world.getBlockState(pos), 2);
             }
             else {
+                int columnsPerOperation = TAConfig.terraformerColumnsPerOperation.getValue();
                 for (EnumFacing facing : VALID_SIDES) {
                     Aspect aspect = getAspectForSide(facing);
                     if (essentia.getInt(aspect) < MAX_ESSENTIA) {
@@ -272,18 +466,23 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
                                 if (t.getEssentiaAmount(facing.getOpposite()) > 0 && t.getSuctionAmount(facing.getOpposite()) < getSuctionAmount(facing) &&
                                         getSuctionAmount(facing) >= t.getMinimumSuction()) {
                                     
-                                    essentia.addTo(aspect, t.takeEssentia(aspect, 1, facing.getOpposite()));
+                                    int amount = Math.min(columnsPerOperation, MAX_ESSENTIA - essentia.getInt(aspect));
+                                    essentia.addTo(aspect, t.takeEssentia(aspect, amount, facing.getOpposite()));
                                 }
                             }
                         }
                     }
                 }
                 
+                if (columnsPerOperation > 1) {
+                    updateMultipleColumns(columnsPerOperation);
+                    return;
+                }
+                
                 boolean skipSet = false;
                 while (true) {
                     skipSet = false;
-                    if (!circle || (currentPos.getX() - pos.getX()) * (currentPos.getX() - pos.getX()) + (currentPos.getZ() - pos.getZ()) *
-                            (currentPos.getZ() - pos.getZ()) < radius * radius) {
+                    if (isInRange(currentPos)) {
                         
                         if ((activeBiome.equals(IBiomeSelector.RESET) && !BiomeUtil.isNaturalBiomePresent(world, currentPos)) ||
                                 (!activeBiome.equals(IBiomeSelector.RESET) && !BiomeUtil.areBiomesSame(world, currentPos, Biome.REGISTRY.getObject(activeBiome)))) {
@@ -293,9 +492,7 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
                                 ConsumeResult consume = consumer.consume(cost, true);
                                 if (consume.energyConsumed == cost) {
                                     consume = consumer.consume(cost, false);
-                                    NodeHelper.syncAllImpetusTransactions(consume.paths.keySet());
-                                    for (Map.Entry<Deque<IImpetusNode>, Long> entry : consume.paths.entrySet())
-                                        NodeHelper.damageEntitiesFromTransaction(entry.getKey(), entry.getValue());
+                                    NodeHelper.queueImpetusTransactions(consume.paths);
                                     
                                     impetusPaid = true;
                                     markDirty();
@@ -304,29 +501,7 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
                                 
                             if (!essentiaPaid) {
                                 Biome biome = activeBiome.equals(IBiomeSelector.RESET) ? BiomeUtil.getNaturalBiome(world, currentPos, Biomes.PLAINS) : Biome.REGISTRY.getObject(activeBiome);
-                                Object2IntOpenHashMap<Aspect> neededAspects = null;
-                                try {
-                                    neededAspects = BIOME_COSTS.get(biome, () -> {
-                                        Object2IntOpenHashMap<Aspect> map = new Object2IntOpenHashMap<>();
-                                        map.put(Aspect.EXCHANGE, 1);
-                                        for (BiomeDictionary.Type type : BiomeDictionary.getTypes(biome)) {
-                                            Aspect aspect = BiomeUtil.getAspectForType(type, Aspect.EXCHANGE);
-                                            if (aspect != null) {
-                                                if (aspect == Aspect.ORDER || aspect == Aspect.ENTROPY)
-                                                    map.addTo(Aspect.EXCHANGE, 1);
-                                                else if (aspect.isPrimal() || aspect == Aspect.EXCHANGE)
-                                                    map.addTo(aspect, 1);
-                                            }
-                                        }
-                                        
-                                        return map;
-                                    });
-                                }
-                                catch (ExecutionException ex) {
-                                    ThaumicAugmentation.getLogger().error("An exception was somehow thrown when it really should not have!");
-                                    throw new RuntimeException(ex);
-                                }
-                                
+                                Object2IntOpenHashMap<Aspect> neededAspects = getEssentiaCost(biome);
                                 boolean enoughEssentia = true;
                                 for (Object2IntOpenHashMap.Entry<Aspect> entry : neededAspects.object2IntEntrySet()) {
                                     if (essentia.getInt(entry.getKey()) < entry.getIntValue()) {
@@ -391,13 +566,9 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
                             break;
                         }
                         
-                        if (Math.abs(currentPos.getX() - pos.getX()) <= Math.abs(currentPos.getZ() - pos.getZ()) && ((currentPos.getX() - pos.getX()) != (currentPos.getZ() - pos.getZ()) || (currentPos.getX() - pos.getX()) >= 0))
-                            currentPos.setPos(currentPos.getX() + ((currentPos.getZ() - pos.getZ()) >= 0 ? 1 : -1), currentPos.getY(), currentPos.getZ());
-                        else
-                            currentPos.setPos(currentPos.getX(), currentPos.getY(), currentPos.getZ() + ((currentPos.getX() - pos.getX()) >= 0 ? -1 : 1));
-                            
+                        advanceSpiral(currentPos);
                         ++blocksChecked;
-                        if (blocksChecked >= (radius * 2 - 1) * (radius * 2 - 1) + 1) {
+                        if (blocksChecked >= getTotalColumns()) {
                             endTerraforming(false);
                             break;
                         }
@@ -500,6 +671,11 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
     public void onLoad() {
         consumer.init(world);
         ThaumicAugmentation.proxy.registerRenderableImpetusNode(consumer);
+        if (!world.isRemote) {
+            // the queue does not survive the world unloading, so anything left over has to be queued again
+            for (ChunkPos c : pendingAura)
+                AuraRegenerationQueue.queueChunk(world, c.x, c.z);
+        }
     }
     
     @Override
@@ -544,6 +720,14 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
             compound.setTag("chunks", cList);
         }
         
+        if (!pendingAura.isEmpty()) {
+            NBTTagList aList = new NBTTagList();
+            for (ChunkPos c : pendingAura)
+                aList.appendTag(new NBTTagIntArray(new int[] {c.x, c.z}));
+            
+            compound.setTag("pendingAura", aList);
+        }
+        
         int[] e = new int[5];
         e[0] = essentia.getInt(Aspect.EXCHANGE);
         e[1] = essentia.getInt(Aspect.AIR);
@@ -562,6 +746,7 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
         consumer.deserializeNBT(compound.getCompoundTag("node"));
         radius = compound.getInteger("radius");
         circle = compound.getBoolean("circle");
+        invalidateTargets();
         if (compound.hasKey("biome", NBT.TAG_STRING)) {
             activeBiome = new ResourceLocation(compound.getString("biome"));
             currentPos.setPos(compound.getInteger("currentX"), pos.getY(), compound.getInteger("currentZ"));
@@ -579,6 +764,16 @@ public class TileArcaneTerraformer extends TileEntity implements IInteractWithCa
             }
         }
         
+        pendingAura.clear();
+        NBTTagList aList = compound.getTagList("pendingAura", NBT.TAG_INT_ARRAY);
+        for (NBTBase tag : aList) {
+            if (tag instanceof NBTTagIntArray) {
+                NBTTagIntArray arr = (NBTTagIntArray) tag;
+                if (arr.getIntArray().length == 2)
+                    pendingAura.add(new ChunkPos(arr.getIntArray()[0], arr.getIntArray()[1]));
+            }
+        }
+        
         int[] e = compound.getIntArray("essentia");
         if (e.length == 5) {
             essentia.put(Aspect.EXCHANGE, e[0]);
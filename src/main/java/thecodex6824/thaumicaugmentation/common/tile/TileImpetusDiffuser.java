@@ -20,17 +20,14 @@
 
 package thecodex6824.thaumicaugmentation.common.tile;
 
-import java.util.Deque;
-import java.util.Map;
+import java.util.ArrayList;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.function.Function;
 
 import javax.annotation.Nullable;
 
 import com.google.common.collect.ImmutableMap;
 
 import net.minecraft.block.state.IBlockState;
-import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
@@ -41,9 +38,9 @@ import net.minecraft.util.ITickable;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.BlockPos.MutableBlockPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.animation.Event;
 import net.minecraftforge.common.animation.ITimeValue;
 import net.minecraftforge.common.capabilities.Capability;
@@ -55,28 +52,33 @@ import thaumcraft.common.lib.utils.BlockStateUtils;
 import thaumcraft.common.tiles.crafting.TileVoidSiphon;
 import thecodex6824.thaumicaugmentation.ThaumicAugmentation;
 import thecodex6824.thaumicaugmentation.api.ThaumicAugmentationAPI;
-import thecodex6824.thaumicaugmentation.api.augment.AugmentAPI;
-import thecodex6824.thaumicaugmentation.api.augment.CapabilityAugmentableItem;
-import thecodex6824.thaumicaugmentation.api.augment.IAugmentableItem;
 import thecodex6824.thaumicaugmentation.api.block.property.IEnabledBlock;
 import thecodex6824.thaumicaugmentation.api.impetus.CapabilityImpetusStorage;
 import thecodex6824.thaumicaugmentation.api.impetus.IImpetusStorage;
 import thecodex6824.thaumicaugmentation.api.impetus.ImpetusAPI;
 import thecodex6824.thaumicaugmentation.api.impetus.node.CapabilityImpetusNode;
 import thecodex6824.thaumicaugmentation.api.impetus.node.ConsumeResult;
-import thecodex6824.thaumicaugmentation.api.impetus.node.IImpetusNode;
 import thecodex6824.thaumicaugmentation.api.impetus.node.NodeHelper;
 import thecodex6824.thaumicaugmentation.api.impetus.node.prefab.SimpleImpetusConsumer;
 import thecodex6824.thaumicaugmentation.api.util.DimensionalBlockPos;
+import thecodex6824.thaumicaugmentation.common.event.VoidSiphonTracker;
 import thecodex6824.thaumicaugmentation.common.tile.trait.IAnimatedTile;
 import thecodex6824.thaumicaugmentation.common.util.AnimationHelper;
+import thecodex6824.thaumicaugmentation.common.util.ChargeableStorageCache;
 
 public class TileImpetusDiffuser extends TileEntity implements ITickable, IAnimatedTile {
     
+    // siphons placed without notifying listeners don't change the tracker version, so rebuild every so often anyway
+    protected static final int SIPHON_REBUILD_INTERVAL = 400;
+    
     protected SimpleImpetusConsumer consumer;
     protected IAnimationStateMachine asm;
     protected boolean lastState = false;
     protected int ticks;
+    protected ArrayList<BlockPos> siphons;
+    protected boolean siphonsValid;
+    protected long siphonVersion;
+    protected long lastSiphonRebuild;
     
     public TileImpetusDiffuser() {
         super();
@@ -88,77 +90,52 @@ public class TileImpetusDiffuser extends TileEntity implements ITickable, IAnima
         };
         
         ticks = ThreadLocalRandom.current().nextInt(20);
+        siphons = new ArrayList<>();
         asm = ThaumicAugmentation.proxy.loadASM(new ResourceLocation(ThaumicAugmentationAPI.MODID, "asms/block/impetus_diffuser.json"), 
                 ImmutableMap.<String, ITimeValue>of());
     }
     
-    @Override
-    public void update() {
-        if (!world.isRemote && ticks++ % 20 == 0 && world.getBlockState(pos).getValue(IEnabledBlock.ENABLED)) {
-            for (EntityLivingBase entity : world.getEntitiesWithinAABB(EntityLivingBase.class, new AxisAlignedBB(pos).grow(7))) {
-                if (entity instanceof EntityPlayer) {
-                    EntityPlayer player = (EntityPlayer) entity;
-                    for (ItemStack stack : player.inventory.mainInventory) {
-                        IImpetusStorage storage = stack.getCapability(CapabilityImpetusStorage.IMPETUS_STORAGE, null);
-                        if (storage != null && storage.canReceive()) {
-                            long canReceive = Math.min(storage.receiveEnergy(Long.MAX_VALUE, true), 25);
-                            ConsumeResult result = consumer.consume(canReceive, false);
-                            if (storage.receiveEnergy(result.energyConsumed, false) > 0) {
-                                ImpetusAPI.createImpetusParticles(world, new Vec3d(pos).add(0.5, 0.5, 0.5), player.getPositionVector().add(0, player.height / 2, 0));
-                                NodeHelper.syncAllImpetusTransactions(result.paths.keySet());
-                                for (Map.Entry<Deque<IImpetusNode>, Long> entry : result.paths.entrySet())
-                                    NodeHelper.damageEntitiesFromTransaction(entry.getKey(), entry.getValue());
-                            }
-                        }
-                        
-                        IAugmentableItem augmentable = stack.getCapability(CapabilityAugmentableItem.AUGMENTABLE_ITEM, null);
-                        if (augmentable != null) {
-                            for (ItemStack s : augmentable.getAllAugments()) {
-                                IImpetusStorage augStorage = s.getCapability(CapabilityImpetusStorage.IMPETUS_STORAGE, null);
-                                if (augStorage != null && augStorage.canReceive()) {
-                                    long canReceive = Math.min(augStorage.receiveEnergy(Long.MAX_VALUE, true), 25);
-                                    ConsumeResult result = consumer.consume(canReceive, false);
-                                    if (augStorage.receiveEnergy(result.energyConsumed, false) > 0) {
-                                        ImpetusAPI.createImpetusParticles(world, new Vec3d(pos).add(0.5, 0.5, 0.5), player.getPositionVector().add(0, player.height / 2, 0));
-                                        NodeHelper.syncAllImpetusTransactions(result.paths.keySet());
-                                        for (Map.Entry<Deque<IImpetusNode>, Long> entry : result.paths.entrySet())
-                                            NodeHelper.damageEntitiesFromTransaction(entry.getKey(), entry.getValue());
-                                    }
+    protected void updateSiphons() {
+        long version = VoidSiphonTracker.getVersion(world);
+        if (!siphonsValid || version != siphonVersion || world.getTotalWorldTime() - lastSiphonRebuild >= SIPHON_REBUILD_INTERVAL) {
+            // siphons have tile entities, so looking through those is much faster than checking every block in range
+            siphons.clear();
+            for (int cX = (pos.getX() - 4) >> 4; cX <= (pos.getX() + 4) >> 4; ++cX) {
+                for (int cZ = (pos.getZ() - 4) >> 4; cZ <= (pos.getZ() + 4) >> 4; ++cZ) {
+                    Chunk chunk = world.getChunkProvider().getLoadedChunk(cX, cZ);
+                    if (chunk != null) {
+                        for (TileEntity tile : chunk.getTileEntityMap().values()) {
+                            if (tile instanceof TileVoidSiphon) {
+                                BlockPos check = tile.getPos();
+                                if (Math.abs(check.getX() - pos.getX()) <= 4 && Math.abs(check.getY() - pos.getY()) <= 4 &&
+                                        Math.abs(check.getZ() - pos.getZ()) <= 4) {
+                                    
+                                    siphons.add(check.toImmutable());
                                 }
                             }
                         }
                     }
                 }
-                
-                for (Function<Entity, Iterable<ItemStack>> func : AugmentAPI.getAugmentableItemSources()) {
-                    for (ItemStack stack : func.apply(entity)) {
-                        IImpetusStorage storage = stack.getCapability(CapabilityImpetusStorage.IMPETUS_STORAGE, null);
-                        if (storage != null && storage.canReceive()) {
-                            long canReceive = Math.min(storage.receiveEnergy(Long.MAX_VALUE, true), 25);
-                            ConsumeResult result = consumer.consume(canReceive, false);
-                            if (storage.receiveEnergy(result.energyConsumed, false) > 0) {
-                                ImpetusAPI.createImpetusParticles(world, new Vec3d(pos).add(0.5, 0.5, 0.5), entity.getPositionVector());
-                                NodeHelper.syncAllImpetusTransactions(result.paths.keySet());
-                                for (Map.Entry<Deque<IImpetusNode>, Long> entry : result.paths.entrySet())
-                                    NodeHelper.damageEntitiesFromTransaction(entry.getKey(), entry.getValue());
-                            }
-                        }
-                        
-                        IAugmentableItem augmentable = stack.getCapability(CapabilityAugmentableItem.AUGMENTABLE_ITEM, null);
-                        if (augmentable != null) {
-                            for (ItemStack s : augmentable.getAllAugments()) {
-                                IImpetusStorage augStorage = s.getCapability(CapabilityImpetusStorage.IMPETUS_STORAGE, null);
-                                if (augStorage != null && augStorage.canReceive()) {
-                                    long canReceive = Math.min(augStorage.receiveEnergy(Long.MAX_VALUE, true), 25);
-                                    ConsumeResult result = consumer.consume(canReceive, false);
-                                    if (augStorage.receiveEnergy(result.energyConsumed, false) > 0) {
-                                        ImpetusAPI.createImpetusParticles(world, new Vec3d(pos).add(0.5, 0.5, 0.5), entity.getPositionVector());
-                                        NodeHelper.syncAllImpetusTransactions(result.paths.keySet());
-                                        for (Map.Entry<Deque<IImpetusNode>, Long> entry : result.paths.entrySet())
-                                            NodeHelper.damageEntitiesFromTransaction(entry.getKey(), entry.getValue());
-                                    }
-                                }
-                            }
+            }
+            
+            siphonsValid = true;
+            siphonVersion = version;
+            lastSiphonRebuild = world.getTotalWorldTime();
+        }
+    }
+    
+    @Override
+    public void update() {
+        if (!world.isRemote && ticks++ % 20 == 0 && world.getBlockState(pos).getValue(IEnabledBlock.ENABLED)) {
+            for (EntityLivingBase entity : world.getEntitiesWithinAABB(EntityLivingBase.class, new AxisAlignedBB(pos).grow(7))) {
+                Vec3d target = entity instanceof EntityPlayer ? entity.getPositionVector().add(0, entity.height / 2, 0) : entity.getPositionVector();
+                for (IImpetusStorage storage : ChargeableStorageCache.getStorages(entity)) {
+                    if (storage.canReceive()) {
+                        long canReceive = Math.min(storage.receiveEnergy(Long.MAX_VALUE, true), 25);
+                        ConsumeResult result = consumer.consume(canReceive, false);
+                        if (storage.receiveEnergy(result.energyConsumed, false) > 0) {
+                            ImpetusAPI.createImpetusParticles(world, new Vec3d(pos).add(0.5, 0.5, 0.5), target);
+                            NodeHelper.queueImpetusTransactions(result.paths);
                         }
                     }
                 }
@@ -169,62 +146,53 @@ public class TileImpetusDiffuser extends TileEntity implements ITickable, IAnima
                     ConsumeResult result = consumer.consume(canReceive, false);
                     if (entityStorage.receiveEnergy(result.energyConsumed, false) > 0) {
                         ImpetusAPI.createImpetusParticles(world, new Vec3d(pos).add(0.5, 0.5, 0.5), entity.getPositionVector());
-                        NodeHelper.syncAllImpetusTransactions(result.paths.keySet());
-                        for (Map.Entry<Deque<IImpetusNode>, Long> entry : result.paths.entrySet())
-                            NodeHelper.damageEntitiesFromTransaction(entry.getKey(), entry.getValue());
+                        NodeHelper.queueImpetusTransactions(result.paths);
                     }
                 }
             }
             
-            MutableBlockPos check = new MutableBlockPos();
-            for (int y = -4; y < 5; ++y) {
-                for (int x = -4; x < 5; ++x) {
-                    for (int z = -4; z < 5; ++z) {
-                        check.setPos(x + pos.getX(), y + pos.getY(), z + pos.getZ());
-                        IBlockState state = world.getBlockState(check);
-                        if (state.getBlock() == BlocksTC.voidSiphon) {
-                            TileEntity tile = world.getTileEntity(check);
-                            if (tile instanceof TileVoidSiphon) {
-                                TileVoidSiphon siphon = (TileVoidSiphon) tile;
-                                if (BlockStateUtils.isEnabled(state)) {
-                                    ItemStack initial = siphon.getStackInSlot(0);
-                                    if (initial.isEmpty() ||
-                                            (initial.getItem() == ItemsTC.voidSeed && initial.getCount() < initial.getMaxStackSize())) {
-                                        
-                                        ConsumeResult result = consumer.consume(75, false);
-                                        if (result.energyConsumed > 0) {
-                                            NodeHelper.syncAllImpetusTransactions(result.paths.keySet());
-                                            for (Map.Entry<Deque<IImpetusNode>, Long> entry : result.paths.entrySet())
-                                                NodeHelper.damageEntitiesFromTransaction(entry.getKey(), entry.getValue());
-                                            
-                                            siphon.progress += (int) (result.energyConsumed / 1.5F);
-                                            if ((ticks - 1) % 40 == 0) {
-                                                ImpetusAPI.createImpetusParticles(world, new Vec3d(pos).add(0.5, 0.65, 0.5),
-                                                        new Vec3d(check).add(0.5, 0.85, 0.5));
-                                            }
+            updateSiphons();
+            for (BlockPos check : siphons) {
+                IBlockState state = world.getBlockState(check);
+                if (state.getBlock() == BlocksTC.voidSiphon) {
+                    TileEntity tile = world.getTileEntity(check);
+                    if (tile instanceof TileVoidSiphon) {
+                        TileVoidSiphon siphon = (TileVoidSiphon) tile;
+                        if (BlockStateUtils.isEnabled(state)) {
+                            ItemStack initial = siphon.getStackInSlot(0);
+                            if (initial.isEmpty() ||
+                                    (initial.getItem() == ItemsTC.voidSeed && initial.getCount() < initial.getMaxStackSize())) {
+                                
+                                ConsumeResult result = consumer.consume(75, false);
+                                if (result.energyConsumed > 0) {
+                                    NodeHelper.queueImpetusTransactions(result.paths);
+                                    
+                                    siphon.progress += (int) (result.energyConsumed / 1.5F);
+                                    if ((ticks - 1) % 40 == 0) {
+                                        ImpetusAPI.createImpetusParticles(world, new Vec3d(pos).add(0.5, 0.65, 0.5),
+                                                new Vec3d(check).add(0.5, 0.85, 0.5));
+                                    }
+                                    
+                                    boolean sync = false;
+                                    while (siphon.progress >= 2000) {
+                                        ItemStack contained = siphon.getStackInSlot(0);
+                                        if (contained.isEmpty() ||
+                                                (contained.getItem() == ItemsTC.voidSeed && contained.getCount() < contained.getMaxStackSize())) {
                                             
-                                            boolean sync = false;
-                                            while (siphon.progress >= 2000) {
-                                                ItemStack contained = siphon.getStackInSlot(0);
-                                                if (contained.isEmpty() ||
-                                                        (contained.getItem() == ItemsTC.voidSeed && contained.getCount() < contained.getMaxStackSize())) {
-                                                    
-                                                    siphon.progress -= 2000;
-                                                    if (contained.isEmpty())
-                                                      siphon.setInventorySlotContents(0, new ItemStack(ItemsTC.voidSeed));
-                                                    else
-                                                      siphon.setInventorySlotContents(0, new ItemStack(contained.getItem(), contained.getCount() + 1));
-                                                    
-                                                    sync = true;
-                                                }
-                                                else
-                                                    break;
-                                            }
+                                            siphon.progress -= 2000;
+                                            if (contained.isEmpty())
+                                              siphon.setInventorySlotContents(0, new ItemStack(ItemsTC.voidSeed));
+                                            else
+                                              siphon.setInventorySlotContents(0, new ItemStack(contained.getItem(), contained.getCount() + 1));
                                             
-                                            if (sync)
-                                                siphon.syncTile(false);
+                                            sync = true;
                                         }
+                                        else
+                                            break;
                                     }
+                                    
+                                    if (sync)
+                                        siphon.syncTile(false);
                                 }
                             }
                         }
@@ -55,6 +55,7 @@ import thecodex6824.thaumicaugmentation.api.impetus.node.CapabilityImpetusNode;
 import thecodex6824.thaumicaugmentation.api.impetus.node.NodeHelper;
 import thecodex6824.thaumicaugmentation.api.impetus.node.prefab.BufferedImpetusProvider;
 import thecodex6824.thaumicaugmentation.api.util.DimensionalBlockPos;
+import thecodex6824.thaumicaugmentation.common.event.FluxRiftTracker;
 import thecodex6824.thaumicaugmentation.common.tile.trait.IAnimatedTile;
 import thecodex6824.thaumicaugmentation.common.util.AnimationHelper;
 
@@ -97,7 +98,7 @@ public class TileImpetusDrainer extends TileEntity implements ITickable, IAnimat
     }
     
     protected void findRift() {
-        List<EntityFluxRift> rifts = world.getEntitiesWithinAABB(EntityFluxRift.class, new AxisAlignedBB(pos).grow(8.0));
+        List<EntityFluxRift> rifts = FluxRiftTracker.getRiftsInArea(world, new AxisAlignedBB(pos).grow(8.0));
         rifts.sort((rift1, rift2) -> Double.compare(rift1.getPosition().distanceSq(pos), rift2.getPosition().distanceSq(pos)));
         for (EntityFluxRift rift : rifts) {
             if (!rift.isDead) {
@@ -20,8 +20,6 @@
 
 package thecodex6824.thaumicaugmentation.common.tile;
 
-import java.util.Deque;
-import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 
 import javax.annotation.Nullable;
@@ -48,7 +46,6 @@ import thecodex6824.thaumicaugmentation.api.block.property.IDirectionalBlock;
 import thecodex6824.thaumicaugmentation.api.block.property.IEnabledBlock;
 import thecodex6824.thaumicaugmentation.api.impetus.node.CapabilityImpetusNode;
 import thecodex6824.thaumicaugmentation.api.impetus.node.ConsumeResult;
-import thecodex6824.thaumicaugmentation.api.impetus.node.IImpetusNode;
 import thecodex6824.thaumicaugmentation.api.impetus.node.NodeHelper;
 import thecodex6824.thaumicaugmentation.api.impetus.node.prefab.SimpleImpetusConsumer;
 import thecodex6824.thaumicaugmentation.api.util.DimensionalBlockPos;
@@ -128,9 +125,7 @@ public class TileImpetusGenerator extends TileEntity implements ITickable {
                         forgeEnergy.setEnergy(forgeEnergy.getEnergyStored() + TAConfig.impetusGeneratorEnergyPerImpetus.getValue());
                         world.notifyBlockUpdate(pos, world.getBlockState(pos), world.getBlockState(pos), 6);
                         world.addBlockEvent(pos, getBlockType(), 1, 0);
-                        NodeHelper.syncAllImpetusTransactions(result.paths.keySet());
-                        for (Map.Entry<Deque<IImpetusNode>, Long> entry : result.paths.entrySet())
-                            NodeHelper.damageEntitiesFromTransaction(entry.getKey(), entry.getValue());
+                        NodeHelper.queueImpetusTransactions(result.paths);
                     }
                 }
             }
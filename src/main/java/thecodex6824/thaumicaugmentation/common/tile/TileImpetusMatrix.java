@@ -24,7 +24,6 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 
 import javax.annotation.Nullable;
@@ -265,9 +264,7 @@ public class TileImpetusMatrix extends TileEntity implements ITickable, IAnimate
                 buffer.validateEnergy();
                 ConsumeResult result = prosumer.consume(getTotalCells() * CELL_CAPACITY, false);
                 if (result.energyConsumed > 0) {
-                    NodeHelper.syncAllImpetusTransactions(result.paths.keySet());
-                    for (Map.Entry<Deque<IImpetusNode>, Long> entry : result.paths.entrySet())
-                        NodeHelper.damageEntitiesFromTransaction(entry.getKey(), entry.getValue());
+                    NodeHelper.queueImpetusTransactions(result.paths);
                 }
             }
             
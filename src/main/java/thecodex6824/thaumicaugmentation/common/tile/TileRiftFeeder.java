@@ -20,7 +20,6 @@
 
 package thecodex6824.thaumicaugmentation.common.tile;
 
-import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 import javax.annotation.Nullable;
@@ -34,7 +33,6 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumFacing.Axis;
 import net.minecraft.util.ITickable;
-import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.Vec3d;
@@ -48,6 +46,7 @@ import thecodex6824.thaumicaugmentation.ThaumicAugmentation;
 import thecodex6824.thaumicaugmentation.api.block.property.IDirectionalBlock;
 import thecodex6824.thaumicaugmentation.api.block.property.IEnabledBlock;
 import thecodex6824.thaumicaugmentation.api.util.RiftHelper;
+import thecodex6824.thaumicaugmentation.common.event.FluxRiftTracker;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect.ParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.TANetwork;
@@ -78,14 +77,9 @@ public class TileRiftFeeder extends TileEntity implements ITickable, IEssentiaTr
     
     @Nullable
     protected EntityFluxRift findClosestRift(EnumFacing face) {
-        BlockPos pos1 = pos.offset(face).add(1.0 - face.getXOffset(), 1.0 - face.getYOffset(), 1.0 - face.getZOffset());
-        BlockPos pos2 = pos.offset(face, 12).add(1.0 + face.getXOffset(), 1.0 + face.getYOffset(), 1.0 + face.getZOffset());
-        List<EntityFluxRift> rifts = world.getEntitiesWithinAABB(EntityFluxRift.class, 
-                new AxisAlignedBB(pos1.getX() - 1, pos1.getY() - 1, pos1.getZ() - 1, pos2.getX() + 2, pos2.getY() + 2, pos2.getZ() + 2));
-        if (!rifts.isEmpty()) {
-            rifts.sort((rift1, rift2) -> Double.compare(getDistForFace(face, rift1), getDistForFace(face, rift2)));
+        EntityFluxRift chosenOne = FluxRiftTracker.findClosestRiftAlongFace(world, pos, face, 12, rift -> true);
+        if (chosenOne != null) {
             RayTraceResult trace = world.rayTraceBlocks(new Vec3d(pos.offset(face)), new Vec3d(pos.offset(face, 10)));
-            EntityFluxRift chosenOne = rifts.get(0);
             if (trace == null || trace.hitVec == null || getDistForFace(face, chosenOne) < getDistForFace(face, trace.hitVec))
                 return chosenOne;
         }
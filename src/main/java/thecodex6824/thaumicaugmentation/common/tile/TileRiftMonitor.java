@@ -21,6 +21,7 @@
 package thecodex6824.thaumicaugmentation.common.tile;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
@@ -38,7 +39,9 @@ import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import thaumcraft.common.entities.EntityFluxRift;
-import thecodex6824.thaumicaugmentation.api.entity.IDimensionalFracture;
+import thecodex6824.thaumicaugmentation.common.entity.EntityDimensionalFracture;
+import thecodex6824.thaumicaugmentation.common.event.EntityUUIDTracker;
+import thecodex6824.thaumicaugmentation.common.event.FluxRiftTracker;
 
 public class TileRiftMonitor extends TileEntity implements ITickable {
 
@@ -66,7 +69,10 @@ public class TileRiftMonitor extends TileEntity implements ITickable {
     }
     
     public void cycleTarget() {
-        List<Entity> entities = world.getEntitiesWithinAABB(Entity.class, new AxisAlignedBB(pos).grow(12), entity -> entity instanceof EntityFluxRift || entity instanceof IDimensionalFracture);
+        // rifts come from the tracker, and fractures are looked up by class so the rest of the nearby entities are skipped
+        AxisAlignedBB box = new AxisAlignedBB(pos).grow(12);
+        List<Entity> entities = new ArrayList<>(FluxRiftTracker.getRiftsInArea(world, box));
+        entities.addAll(world.getEntitiesWithinAABB(EntityDimensionalFracture.class, box));
         entities.sort((e1, e2) -> Double.compare(e1.getDistanceSq(pos), e2.getDistanceSq(pos)));
         if (!entities.isEmpty()) {
             if (target.get() == null || target.get().isDead) {
@@ -127,9 +133,9 @@ public class TileRiftMonitor extends TileEntity implements ITickable {
     
     protected void loadTargetFromID() {
         if (!world.isRemote) {
-            List<Entity> list = world.getEntities(Entity.class, e -> e != null && e.getPersistentID().equals(serverTargetID));
-            if (!list.isEmpty()) {
-                target = new WeakReference<>(list.get(0));
+            Entity e = EntityUUIDTracker.getEntity(world, serverTargetID);
+            if (e != null) {
+                target = new WeakReference<>(e);
                 world.notifyBlockUpdate(pos, world.getBlockState(pos), world.getBlockState(pos), 3);
             }
         }
@@ -57,6 +57,7 @@ import thecodex6824.thaumicaugmentation.api.tile.CapabilityRiftJar;
 import thecodex6824.thaumicaugmentation.api.tile.IRiftJar;
 import thecodex6824.thaumicaugmentation.api.util.FluxRiftReconstructor;
 import thecodex6824.thaumicaugmentation.api.util.RiftHelper;
+import thecodex6824.thaumicaugmentation.common.event.FluxRiftTracker;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect.ParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.TANetwork;
@@ -80,7 +81,7 @@ public class TileRiftMoverInput extends TileEntity implements ITickable, IIntera
     protected EntityFluxRift findRift() {
         BlockPos pos1 = pos.add(-1, 1, -1);
         BlockPos pos2 = pos.add(1, 6, 1);
-        List<EntityFluxRift> rifts = world.getEntitiesWithinAABB(EntityFluxRift.class, 
+        List<EntityFluxRift> rifts = FluxRiftTracker.getRiftsInArea(world, 
                 new AxisAlignedBB(pos1.getX(), pos1.getY(), pos1.getZ(), pos2.getX() + 1, pos2.getY() + 1, pos2.getZ() + 1));
         if (!rifts.isEmpty()) {
             rifts.sort((rift1, rift2) -> (int) (rift1.getPosition().distanceSq(pos) - rift2.getPosition().distanceSq(pos)));
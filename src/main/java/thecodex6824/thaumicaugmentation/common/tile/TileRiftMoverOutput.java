@@ -64,6 +64,7 @@ import thecodex6824.thaumicaugmentation.api.tile.CapabilityRiftJar;
 import thecodex6824.thaumicaugmentation.api.tile.IRiftJar;
 import thecodex6824.thaumicaugmentation.api.util.FluxRiftReconstructor;
 import thecodex6824.thaumicaugmentation.api.util.RiftHelper;
+import thecodex6824.thaumicaugmentation.common.event.FluxRiftTracker;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect.ParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.TANetwork;
@@ -113,7 +114,7 @@ public class TileRiftMoverOutput extends TileEntity implements ITickable, IInter
                 if (jar != null && jar.hasRift()) {
                     Vec3d riftPos = findRiftPos();
                     if (riftPos != null) {
-                        List<EntityFluxRift> rifts = world.getEntitiesWithinAABB(EntityFluxRift.class,
+                        List<EntityFluxRift> rifts = FluxRiftTracker.getRiftsInArea(world, 
                                 new AxisAlignedBB(riftPos.x, riftPos.y, riftPos.z, riftPos.x, riftPos.y, riftPos.z).grow(32.0F));
                         if (rifts.isEmpty()) {
                             rift = new EntityFluxRift(world);
@@ -176,7 +177,7 @@ public class TileRiftMoverOutput extends TileEntity implements ITickable, IInter
     protected EntityFluxRift findRift() {
         BlockPos pos1 = pos.add(-1, 1, -1);
         BlockPos pos2 = pos.add(1, 6, 1);
-        List<EntityFluxRift> rifts = world.getEntitiesWithinAABB(EntityFluxRift.class, 
+        List<EntityFluxRift> rifts = FluxRiftTracker.getRiftsInArea(world, 
                 new AxisAlignedBB(pos1.getX(), pos1.getY(), pos1.getZ(), pos2.getX() + 1, pos2.getY() + 1, pos2.getZ() + 1));
         if (!rifts.isEmpty()) {
             rifts.sort((rift1, rift2) -> (int) (rift1.getPosition().distanceSq(pos) - rift2.getPosition().distanceSq(pos)));
@@ -40,7 +40,6 @@ import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumFacing.Axis;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.ResourceLocation;
-import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.RayTraceResult;
@@ -63,6 +62,8 @@ import thecodex6824.thaumicaugmentation.api.ThaumicAugmentationAPI;
 import thecodex6824.thaumicaugmentation.api.block.property.IDirectionalBlock;
 import thecodex6824.thaumicaugmentation.api.block.property.IEnabledBlock;
 import thecodex6824.thaumicaugmentation.api.util.RiftHelper;
+import thecodex6824.thaumicaugmentation.common.event.EntityUUIDTracker;
+import thecodex6824.thaumicaugmentation.common.event.FluxRiftTracker;
 import thecodex6824.thaumicaugmentation.common.tile.trait.IAnimatedTile;
 import thecodex6824.thaumicaugmentation.common.util.AnimationHelper;
 
@@ -122,15 +123,9 @@ public class TileStabilityFieldGenerator extends TileEntity implements ITickable
     
     @Nullable
     protected EntityFluxRift findClosestRift(EnumFacing face) {
-        BlockPos pos1 = pos.offset(face).add(1.0 - face.getXOffset(), 1.0 - face.getYOffset(), 1.0 - face.getZOffset());
-        BlockPos pos2 = pos.offset(face, 8).add(1.0 + face.getXOffset(), 1.0 + face.getYOffset(), 1.0 + face.getZOffset());
-        List<EntityFluxRift> rifts = world.getEntitiesWithinAABB(EntityFluxRift.class, 
-                new AxisAlignedBB(pos1.getX() - 1, pos1.getY() - 1, pos1.getZ() - 1, pos2.getX() + 2, pos2.getY() + 2, pos2.getZ() + 2),
-                rift -> rift != null && !rift.getCollapse());
-        if (!rifts.isEmpty()) {
-            rifts.sort((rift1, rift2) -> Double.compare(getDistForFace(face, rift1), getDistForFace(face, rift2)));
+        EntityFluxRift chosenOne = FluxRiftTracker.findClosestRiftAlongFace(world, pos, face, 8, rift -> !rift.getCollapse());
+        if (chosenOne != null) {
             RayTraceResult trace = world.rayTraceBlocks(new Vec3d(pos.offset(face)), new Vec3d(pos.offset(face, 8)));
-            EntityFluxRift chosenOne = rifts.get(0);
             if (trace == null || trace.hitVec == null || getDistForFace(face, chosenOne) < getDistForFace(face, trace.hitVec))
                 return chosenOne;
         }
@@ -146,9 +141,9 @@ public class TileStabilityFieldGenerator extends TileEntity implements ITickable
     
     protected void loadTargetFromID() {
         if (!world.isRemote) {
-            List<EntityFluxRift> test = world.getEntities(EntityFluxRift.class, e -> e != null && e.getUniqueID().equals(serverLoadedID));
-            if (!test.isEmpty()) {
-                targetedRift = new WeakReference<>(test.get(0));
+            EntityFluxRift test = EntityUUIDTracker.getEntity(world, serverLoadedID, EntityFluxRift.class);
+            if (test != null) {
+                targetedRift = new WeakReference<>(test);
                 world.notifyBlockUpdate(pos, world.getBlockState(pos), world.getBlockState(pos), 1);
             }
         }
@@ -144,11 +144,8 @@ public class TileVoidRechargePedestal extends TileEntity implements ITickable {
             if (sync) {
                 markDirty();
                 world.notifyBlockUpdate(pos, world.getBlockState(pos), world.getBlockState(pos), 6);
-                for (Map<Deque<IImpetusNode>, Long> map : transactions) {
-                    NodeHelper.syncAllImpetusTransactions(map.keySet());
-                    for (Map.Entry<Deque<IImpetusNode>, Long> entry : map.entrySet())
-                        NodeHelper.damageEntitiesFromTransaction(entry.getKey(), entry.getValue());
-                }
+                for (Map<Deque<IImpetusNode>, Long> map : transactions)
+                    NodeHelper.queueImpetusTransactions(map);
                 
                 TANetwork.INSTANCE.sendToAllTracking(new PacketParticleEffect(ParticleEffect.SPARK,
                         pos.getX() + 0.5 + (world.rand.nextFloat() - world.rand.nextFloat()) * 0.25, pos.getY() + 0.9 + (world.rand.nextFloat() - world.rand.nextFloat()) * 0.25,
@@ -0,0 +1,150 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+import thecodex6824.thaumicaugmentation.api.augment.AugmentAPI;
+import thecodex6824.thaumicaugmentation.api.augment.CapabilityAugmentableItem;
+import thecodex6824.thaumicaugmentation.api.augment.IAugmentableItem;
+import thecodex6824.thaumicaugmentation.api.impetus.CapabilityImpetusStorage;
+import thecodex6824.thaumicaugmentation.api.impetus.IImpetusStorage;
+
+/**
+ * Caches the impetus storages held by entities, so that things charging items don't have to look up capabilities
+ * on every stack every time. The cache is refreshed when any held stack (or augment in a held stack) is replaced.
+ */
+public final class ChargeableStorageCache {
+    
+    protected static class Entry {
+        
+        public final ArrayList<ItemStack> stacks = new ArrayList<>();
+        public final ArrayList<IAugmentableItem> augmentables = new ArrayList<>();
+        public final ArrayList<ItemStack[]> augments = new ArrayList<>();
+        public final ArrayList<ItemStack> storageStacks = new ArrayList<>();
+        public final ArrayList<IImpetusStorage> storages = new ArrayList<>();
+        
+    }
+    
+    private static final WeakHashMap<Entity, Entry> CACHE = new WeakHashMap<>();
+    private static final ArrayList<ItemStack> TEMP = new ArrayList<>();
+    
+    private ChargeableStorageCache() {}
+    
+    private static void gatherStacks(Entity entity, List<ItemStack> dest) {
+        if (entity instanceof EntityPlayer)
+            dest.addAll(((EntityPlayer) entity).inventory.mainInventory);
+        
+        for (Function<Entity, Iterable<ItemStack>> func : AugmentAPI.getAugmentableItemSources()) {
+            for (ItemStack stack : func.apply(entity))
+                dest.add(stack);
+        }
+    }
+    
+    private static boolean isValid(Entry entry, List<ItemStack> current) {
+        if (current.size() != entry.stacks.size())
+            return false;
+        
+        // stacks that change count keep their identity, so only replacement needs to be checked for
+        for (int i = 0; i < current.size(); ++i) {
+            if (current.get(i) != entry.stacks.get(i))
+                return false;
+        }
+        
+        for (ItemStack stack : entry.storageStacks) {
+            if (stack.isEmpty())
+                return false;
+        }
+        
+        for (int i = 0; i < entry.augmentables.size(); ++i) {
+            ItemStack[] now = entry.augmentables.get(i).getAllAugments();
+            ItemStack[] old = entry.augments.get(i);
+            if (now.length != old.length)
+                return false;
+            
+            for (int j = 0; j < now.length; ++j) {
+                if (now[j] != old[j])
+                    return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    private static void addStorage(Entry entry, ItemStack stack) {
+        if (!stack.isEmpty()) {
+            IImpetusStorage storage = stack.getCapability(CapabilityImpetusStorage.IMPETUS_STORAGE, null);
+            if (storage != null) {
+                entry.storageStacks.add(stack);
+                entry.storages.add(storage);
+            }
+        }
+    }
+    
+    private static void rebuild(Entry entry, List<ItemStack> current) {
+        entry.stacks.clear();
+        entry.stacks.addAll(current);
+        entry.augmentables.clear();
+        entry.augments.clear();
+        entry.storageStacks.clear();
+        entry.storages.clear();
+        for (ItemStack stack : current) {
+            addStorage(entry, stack);
+            IAugmentableItem augmentable = !stack.isEmpty() ? stack.getCapability(CapabilityAugmentableItem.AUGMENTABLE_ITEM, null) : null;
+            if (augmentable != null) {
+                ItemStack[] augs = augmentable.getAllAugments();
+                entry.augmentables.add(augmentable);
+                entry.augments.add(augs.clone());
+                for (ItemStack aug : augs)
+                    addStorage(entry, aug);
+            }
+        }
+    }
+    
+    /**
+     * Returns the impetus storages in the given entity's inventory and augmentable item sources, including ones in augments.
+     * The returned list is owned by the cache and should not be modified or kept.
+     * @param entity The entity to get storages for
+     * @return The storages the entity has
+     */
+    public static List<IImpetusStorage> getStorages(Entity entity) {
+        TEMP.clear();
+        gatherStacks(entity, TEMP);
+        Entry entry = CACHE.get(entity);
+        if (entry == null) {
+            entry = new Entry();
+            CACHE.put(entity, entry);
+            rebuild(entry, TEMP);
+        }
+        else if (!isValid(entry, TEMP))
+            rebuild(entry, TEMP);
+        
+        TEMP.clear();
+        return entry.storages;
+    }
+    
+}
@@ -0,0 +1,78 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.common.util;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+
+/**
+ * World event listener where every method is a no-op, so that subclasses only need to override what they care about.
+ */
+public abstract class WorldListenerAdapter implements IWorldEventListener {
+    
+    @Override
+    public void notifyBlockUpdate(World world, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {}
+    
+    @Override
+    public void notifyLightSet(BlockPos pos) {}
+    
+    @Override
+    public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {}
+    
+    @Override
+    public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent sound, SoundCategory category, double x,
+            double y, double z, float volume, float pitch) {}
+    
+    @Override
+    public void playRecord(SoundEvent sound, BlockPos pos) {}
+    
+    @Override
+    public void spawnParticle(int particleID, boolean ignoreRange, double x, double y, double z, double xSpeed,
+            double ySpeed, double zSpeed, int... parameters) {}
+    
+    @Override
+    public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y, double z,
+            double xSpeed, double ySpeed, double zSpeed, int... parameters) {}
+    
+    @Override
+    public void onEntityAdded(Entity entity) {}
+    
+    @Override
+    public void onEntityRemoved(Entity entity) {}
+    
+    @Override
+    public void broadcastSound(int soundID, BlockPos pos, int data) {}
+    
+    @Override
+    public void playEvent(EntityPlayer player, int type, BlockPos pos, int data) {}
+    
+    @Override
+    public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {}
+    
+}
@@ -25,6 +25,7 @@ import java.util.Random;
 
 import javax.annotation.Nullable;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import net.minecraft.block.BlockFalling;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.EnumCreatureType;
@@ -65,6 +66,19 @@ public class ChunkGeneratorEmptiness implements ITAChunkGenerator {
     
     protected double[] biomeWeights;
     
+    // chunk generation only happens on the server thread, so these can be reused between chunks
+    protected double[] depthBuffer;
+    protected double[] mainBuffer;
+    protected double[] minBuffer;
+    protected double[] maxBuffer;
+    protected double[] surfaceBuffer;
+    protected Biome[] generationBiomes;
+    protected Biome[] chunkBiomes;
+    
+    // spire placement asks for the heightmap of chunks that are about to be generated anyway, so keep the last few around
+    protected static final int HEIGHT_CACHE_SIZE = 16;
+    protected Long2ObjectLinkedOpenHashMap<double[]> heightCache;
+    
     protected MapGenEldritchSpire spireGenerator;
 
     public ChunkGeneratorEmptiness(World w) {
@@ -83,6 +97,8 @@ public class ChunkGeneratorEmptiness implements ITAChunkGenerator {
                 biomeWeights[x + 2 + (z + 2) * 5] = 10.0F / MathHelper.sqrt(x * x + z * z + 0.2F);
         }
         
+        heightCache = new Long2ObjectLinkedOpenHashMap<>();
+        
         InitNoiseGensEvent.Context ctx = new InitNoiseGensEvent.Context(min, max, main, scale, depth);
         ctx = TerrainGen.getModdedNoiseGenerators(world, rand, ctx);
         min = ctx.getLPerlin1();
@@ -94,8 +110,10 @@ public class ChunkGeneratorEmptiness implements ITAChunkGenerator {
         spireGenerator = (MapGenEldritchSpire) TerrainGen.getModdedMapGen(new MapGenEldritchSpire(this), EventType.CUSTOM);
     }
 
-    protected double[] generateHeights(int posX, int posY, int posZ, int sizeX, int sizeY, int sizeZ, Biome[] biomes) {
-        double[] output = new double[sizeX * sizeY * sizeZ];
+    protected double[] generateHeights(@Nullable double[] output, int posX, int posY, int posZ, int sizeX, int sizeY, int sizeZ, Biome[] biomes) {
+        if (output == null || output.length < sizeX * sizeY * sizeZ)
+            output = new double[sizeX * sizeY * sizeZ];
+        
         InitNoiseField noiseEvent = new InitNoiseField(this, output, posX, posY, posZ, sizeX, sizeY, sizeZ);
         MinecraftForge.EVENT_BUS.post(noiseEvent);
         if (noiseEvent.getResult() == Result.DENY)
@@ -105,10 +123,14 @@ public class ChunkGeneratorEmptiness implements ITAChunkGenerator {
         double depthScaleZ = 200.0;
         double coordScale = 684.412;
         double heightScale = 684.412;
-        double[] depthNoise = depth.generateNoiseOctaves(null, posX, posZ, sizeX, sizeZ, depthScaleX, depthScaleZ, 0.5);
-        double[] mainNoise = main.generateNoiseOctaves(null, posX, posY, posZ, sizeX, sizeY, sizeZ, coordScale / 80.0, heightScale / 160.0, coordScale / 80.0);
-        double[] minNoise = min.generateNoiseOctaves(null, posX, posY, posZ, sizeX, sizeY, sizeZ, coordScale, heightScale, coordScale);
-        double[] maxNoise = max.generateNoiseOctaves(null, posX, posY, posZ, sizeX, sizeY, sizeZ, coordScale, heightScale, coordScale);
+        depthBuffer = depth.generateNoiseOctaves(depthBuffer, posX, posZ, sizeX, sizeZ, depthScaleX, depthScaleZ, 0.5);
+        mainBuffer = main.generateNoiseOctaves(mainBuffer, posX, posY, posZ, sizeX, sizeY, sizeZ, coordScale / 80.0, heightScale / 160.0, coordScale / 80.0);
+        minBuffer = min.generateNoiseOctaves(minBuffer, posX, posY, posZ, sizeX, sizeY, sizeZ, coordScale, heightScale, coordScale);
+        maxBuffer = max.generateNoiseOctaves(maxBuffer, posX, posY, posZ, sizeX, sizeY, sizeZ, coordScale, heightScale, coordScale);
+        double[] depthNoise = depthBuffer;
+        double[] mainNoise = mainBuffer;
+        double[] minNoise = minBuffer;
+        double[] maxNoise = maxBuffer;
         
         int noiseIndex = 0;
         int depthIndex = 0;
@@ -189,16 +211,28 @@ public class ChunkGeneratorEmptiness implements ITAChunkGenerator {
         return output;
     }
 
+    protected double[] getHeights(int xPos, int zPos) {
+        long key = ChunkPos.asLong(xPos, zPos);
+        double[] heights = heightCache.getAndMoveToLast(key);
+        if (heights == null) {
+            // reuse the array of the entry about to be evicted
+            double[] recycled = heightCache.size() >= HEIGHT_CACHE_SIZE ? heightCache.removeFirst() : null;
+            generationBiomes = world.getBiomeProvider().getBiomesForGeneration(generationBiomes, xPos * 4 - 2, zPos * 4 - 2, 10, 10);
+            heights = generateHeights(recycled, xPos * 4, 0, zPos * 4, 5, 33, 5, generationBiomes);
+            heightCache.putAndMoveToLast(key, heights);
+        }
+        
+        return heights;
+    }
+    
     @Override
     public void populatePrimerWithHeightmap(int xPos, int zPos, ChunkPrimer primer) {
-        Biome[] biomes = world.getBiomeProvider().getBiomesForGeneration(null, xPos * 4 - 2, zPos * 4 - 2, 10, 10);
-        setBlocksInChunk(xPos, zPos, primer, biomes);
+        setBlocksInChunk(xPos, zPos, primer);
     }
     
-    protected void setBlocksInChunk(int xPos, int zPos, ChunkPrimer primer, Biome[] biomes) {
+    protected void setBlocksInChunk(int xPos, int zPos, ChunkPrimer primer) {
         IBlockState filler = TABlocks.STONE.getDefaultState().withProperty(ITAStoneType.STONE_TYPE, StoneType.STONE_VOID);
-        int scaleX = 5, scaleY = 33, scaleZ = 5;
-        double[] heights = generateHeights(xPos * 4, 0, zPos * 4, scaleX, scaleY, scaleZ, biomes);
+        double[] heights = getHeights(xPos, zPos);
         for (int i = 0; i < 4; ++i) {
             int j = i * 5;
             int k = (i + 1) * 5;
@@ -252,7 +286,8 @@ public class ChunkGeneratorEmptiness implements ITAChunkGenerator {
         if (!ForgeEventFactory.onReplaceBiomeBlocks(this, x, z, primer, world))
             return;
         
-        double[] noise = gen4.getRegion(null, x * 16, z * 16, 16, 16, 0.0625, 0.0625, 1.0);
+        surfaceBuffer = gen4.getRegion(surfaceBuffer, x * 16, z * 16, 16, 16, 0.0625, 0.0625, 1.0);
+        double[] noise = surfaceBuffer;
         for (int cX = 0; cX < 16; ++cX) {
             for (int cZ = 0; cZ < 16; ++cZ) {
                 Biome biome = biomes[cZ + cX * 16];
@@ -265,9 +300,9 @@ public class ChunkGeneratorEmptiness implements ITAChunkGenerator {
     public Chunk generateChunk(int x, int z) {
         rand.setSeed(x * 341873128712L + z * 132897987541L);
         ChunkPrimer primer = new ChunkPrimer();
-        Biome[] biomes = world.getBiomeProvider().getBiomesForGeneration(null, x * 4 - 2, z * 4 - 2, 10, 10);
-        setBlocksInChunk(x, z, primer, biomes);
-        biomes = world.getBiomeProvider().getBiomes(biomes, x * 16, z * 16, 16, 16);
+        setBlocksInChunk(x, z, primer);
+        chunkBiomes = world.getBiomeProvider().getBiomes(chunkBiomes, x * 16, z * 16, 16, 16);
+        Biome[] biomes = chunkBiomes;
         replaceBlocksForBiome(x, z, primer, biomes);
         
         if (world.getWorldInfo().isMapFeaturesEnabled() && TAConfig.generateSpires.getValue())
@@ -131,7 +131,7 @@ public final class TAWorldGenerator implements IWorldGenerator {
                     xSeed = random.nextLong() >> 2 + 1;
                     zSeed = random.nextLong() >> 2 + 1;
                     rand.setSeed((xSeed * chunkX + zSeed * chunkZ) ^ world.getSeed());
-                    QueuedWorldGenManager.enqueueGeneration(() -> {
+                    QueuedWorldGenManager.enqueueGeneration(world, chunkX, chunkZ, () -> {
                         generateFractures(rand, chunkX, chunkZ, world);
                         world.getChunk(chunkX, chunkZ).markDirty();
                     });
@@ -20,10 +20,6 @@
 
 package thecodex6824.thaumicaugmentation.common.world.biome;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.List;
 import java.util.Random;
 
@@ -36,17 +32,14 @@ import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.BiomeDictionary;
-import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
 import thaumcraft.api.aspects.Aspect;
 import thaumcraft.api.aura.AuraHelper;
 import thaumcraft.common.world.aura.AuraHandler;
 import thaumcraft.common.world.biomes.BiomeHandler;
-import thecodex6824.thaumicaugmentation.ThaumicAugmentation;
+import thecodex6824.thaumicaugmentation.common.event.BiomeChangeBuffer;
 import thecodex6824.thaumicaugmentation.common.integration.IntegrationAuraControl;
 import thecodex6824.thaumicaugmentation.common.integration.IntegrationHandler;
 import thecodex6824.thaumicaugmentation.common.integration.IntegrationJEID;
-import thecodex6824.thaumicaugmentation.common.network.PacketBiomeUpdate;
-import thecodex6824.thaumicaugmentation.common.network.TANetwork;
 import thecodex6824.thaumicaugmentation.common.util.TriConsumer;
 
 public final class BiomeUtil {
@@ -73,23 +66,30 @@ public final class BiomeUtil {
             world, chunkX, chunkZ);
         };
     
-    public static void setBiome(World world, BlockPos pos, Biome newBiome) {
+    /**
+     * Writes the biome into the biome array of the chunk containing the position, without marking anything
+     * dirty or notifying clients.
+     * @param world The world containing the position
+     * @param pos The position of the column to change
+     * @param newBiome The biome to write
+     */
+    public static void writeBiome(World world, BlockPos pos, Biome newBiome) {
         if (IntegrationHandler.isIntegrationPresent(IntegrationHandler.JEID_MOD_ID))
             JEID_SET_BIOME.accept(world, pos, newBiome);
         else {
-            Chunk chunk = world.getChunk(pos);
-            byte[] array = chunk.getBiomeArray();
+            byte[] array = world.getChunk(pos).getBiomeArray();
             array[(pos.getZ() & 15) << 4 | (pos.getX() & 15)] = (byte) Biome.getIdForBiome(newBiome);
-            if (!world.isRemote) {
-                world.markChunkDirty(pos, null);
-                TargetPoint point = new TargetPoint(world.provider.getDimension(), pos.getX(), pos.getY(), pos.getZ(), 64.0);
-                TANetwork.INSTANCE.sendToAllTracking(new PacketBiomeUpdate(pos.getX(), pos.getZ(), Biome.getIdForBiome(newBiome)), point);
-            }
-            else
-                world.markBlocksDirtyVertical(pos.getX(), pos.getZ(), 0, 255);
         }
     }
     
+    public static void setBiome(World world, BlockPos pos, Biome newBiome) {
+        writeBiome(world, pos, newBiome);
+        if (!world.isRemote)
+            BiomeChangeBuffer.queueChange(world, pos, Biome.getIdForBiome(newBiome));
+        else
+            world.markBlocksDirtyVertical(pos.getX(), pos.getZ(), 0, 255);
+    }
+    
     public static void resetBiome(World world, BlockPos pos) {
         Biome[] biomeArray = world.getBiomeProvider().getBiomesForGeneration(null, (pos.getX() >> 2) - 2, (pos.getZ() >> 2) - 2, 1, 1);
         if (biomeArray != null && biomeArray.length > 0) {
@@ -119,19 +119,87 @@ public final class BiomeUtil {
         return natural != null && natural == world.getBiome(pos);
     }
     
-    private static Random copyRand(Random rand) {
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream();
-                ObjectOutputStream oos = new ObjectOutputStream(out)) {
-            oos.writeObject(rand);
-            oos.close();
-            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
-                return (Random) in.readObject();
-            }
-        }
-        catch (Exception ex) {
-            ThaumicAugmentation.getLogger().error("Failed to copy random for generateNewAura");
-            throw new RuntimeException(ex);
+    // constants of the LCG used by java.util.Random, so its states can be stepped through without copying Random objects
+    private static final long RAND_MULTIPLIER = 0x5DEECE66DL;
+    private static final long RAND_ADDEND = 0xBL;
+    private static final long RAND_MASK = (1L << 48) - 1;
+    
+    public static final int AURA_SEARCH_LIMIT = 1024 * 32;
+    
+    private static long advanceRandState(long state) {
+        return (state * RAND_MULTIPLIER + RAND_ADDEND) & RAND_MASK;
+    }
+    
+    // same as Random.nextDouble, where the states are the ones after each of the two calls to next
+    private static double randDoubleFromStates(long first, long second) {
+        return (((first >>> 22) << 27) + (second >>> 21)) * 0x1.0p-53;
+    }
+    
+    // same as Random.nextGaussian on a fresh Random in the given state, down to the bit
+    private static double randGaussianFromState(long state) {
+        double v1, v2, s;
+        do {
+            long a = advanceRandState(state);
+            long b = advanceRandState(a);
+            long c = advanceRandState(b);
+            state = advanceRandState(c);
+            v1 = 2 * randDoubleFromStates(a, b) - 1;
+            v2 = 2 * randDoubleFromStates(c, state) - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        
+        return v1 * StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+    }
+    
+    /**
+     * Creates a Random whose next output is the output for the given internal state.
+     * @param state The internal state of the Random
+     * @return A new Random in the given state
+     */
+    public static Random createRandFromState(long state) {
+        // setSeed scrambles the seed with the multiplier, so undo that here
+        return new Random(state ^ RAND_MULTIPLIER);
+    }
+    
+    /**
+     * Returns the internal Random state that the aura search for the given position starts from.
+     * @param worldSeed The seed of the world
+     * @param x The x coordinate of the position
+     * @param z The z coordinate of the position
+     * @return The state the aura search starts from
+     */
+    public static long getAuraSearchStart(long worldSeed, int x, int z) {
+        Random chunkRandom = new Random(worldSeed);
+        long xSeed = chunkRandom.nextLong() >> 2 + 1;
+        long zSeed = chunkRandom.nextLong() >> 2 + 1;
+        long state = ((xSeed * (x >> 16) + zSeed * (z >> 16) ^ worldSeed) ^ RAND_MULTIPLIER) & RAND_MASK;
+        // highest safe number of ints that can be skipped
+        for (int i = 0; i < 8; ++i)
+            state = advanceRandState(state);
+        
+        return state;
+    }
+    
+    /**
+     * Searches for the Random state that makes TC generate the given aura base, trying each state
+     * reachable by single steps from the starting state.
+     * @param start The state to start searching from
+     * @param life The averaged aura modifier of the biomes around the position
+     * @param target The aura base to look for
+     * @return The found state, or -1 if no state within the search limit generates the target
+     */
+    public static long findAuraState(long start, float life, int target) {
+        long state = start;
+        for (int i = 0; i < AURA_SEARCH_LIMIT; ++i) {
+            double g = randGaussianFromState(state);
+            // the clamp means this may not be 100% accurate for auras outside that range, but it's better than nothing
+            if (MathHelper.clamp((short) ((float) (1.0 + g * 0.10000000149011612) * life * 500.0F), 0, 500) == target)
+                return state;
+            
+            state = advanceRandState(state);
         }
+        
+        return -1;
     }
     
     public static boolean generateNewAura(World world, BlockPos pos, boolean preserveFlux) {
@@ -149,32 +217,18 @@ public final class BiomeUtil {
         float flux = AuraHelper.getFlux(world, pos);
         float vis = AuraHelper.getVis(world, pos);
         
-        Random chunkRandom = new Random(world.getSeed());
-        long xSeed = chunkRandom.nextLong() >> 2 + 1;
-        long zSeed = chunkRandom.nextLong() >> 2 + 1;
-        chunkRandom.setSeed((xSeed * (pos.getX() >> 16) + zSeed * (pos.getZ() >> 16) ^ world.getSeed()));
-        // highest safe number of ints that can be skipped
-        for (int i = 0; i < 8; ++i)
-            chunkRandom.nextInt();
-        
-        Random copy = copyRand(chunkRandom);
-        boolean solutionFound = false;
-        for (int i = 0; i < 1024 * 32; ++i) {
-            double g = chunkRandom.nextGaussian();
-            // the clamp means this may not be 100% accurate for auras outside that range, but it's better than nothing
-            if (MathHelper.clamp((short) ((float) (1.0 + g * 0.10000000149011612) * life * 500.0F), 0, 500) == target) {
-                solutionFound = true;
-                break;
-            }
-            else {
-                chunkRandom = copy;
-                chunkRandom.nextBoolean();
-                copy = copyRand(chunkRandom);
-            }
+        long start = getAuraSearchStart(world.getSeed(), pos.getX(), pos.getZ());
+        long state = findAuraState(start, life, target);
+        boolean solutionFound = state != -1;
+        if (!solutionFound) {
+            // the search leaves things at the state after the last one tried
+            state = start;
+            for (int i = 0; i < AURA_SEARCH_LIMIT; ++i)
+                state = advanceRandState(state);
         }
         
         Chunk chunk = world.getChunk(pos);
-        AuraHandler.generateAura(chunk, copy);
+        AuraHandler.generateAura(chunk, createRandFromState(state));
         chunk.markDirty();
         if (IntegrationHandler.isIntegrationPresent(IntegrationHandler.AURACONTROL_MOD_ID)) {
             AURACONTROL_HANDLE_AURA.accept(world, pos.getX() >> 4, pos.getZ() >> 4);
@@ -56,6 +56,7 @@ import thecodex6824.thaumicaugmentation.core.transformer.TransformerWardBlockNoV
 import thecodex6824.thaumicaugmentation.core.transformer.TransformerWardBlockGrassPath;
 import thecodex6824.thaumicaugmentation.core.transformer.TransformerWardBlockRandomTick;
 import thecodex6824.thaumicaugmentation.core.transformer.TransformerWardBlockResistance;
+import thecodex6824.thaumicaugmentation.core.transformer.TransformerWardBlockScheduledTick;
 import thecodex6824.thaumicaugmentation.core.transformer.TransformerWardBlockTaintImmunity;
 
 public class TATransformer implements IClassTransformer {
@@ -72,8 +73,10 @@ public class TATransformer implements IClassTransformer {
         // required to make fire not make warded blocks catch on fire
         TRANSFORMERS.add(new TransformerWardBlockFireEncouragement());
         // required to cancel random updates for warded blocks
-        // scheduled and neighbor updates are handled in event handlers
+        // neighbor updates are handled in event handlers
         TRANSFORMERS.add(new TransformerWardBlockRandomTick());
+        // required to cancel scheduled updates for warded blocks without scanning every pending update each tick
+        TRANSFORMERS.add(new TransformerWardBlockScheduledTick());
         // required to prevent shoveling warded grass
         TRANSFORMERS.add(new TransformerWardBlockGrassPath());
         
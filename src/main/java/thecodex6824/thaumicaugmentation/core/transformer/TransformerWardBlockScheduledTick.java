@@ -0,0 +1,85 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package thecodex6824.thaumicaugmentation.core.transformer;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import thecodex6824.thaumicaugmentation.core.ThaumicAugmentationCore;
+
+public class TransformerWardBlockScheduledTick extends Transformer {
+
+    private static final String CLASS = "net.minecraft.world.WorldServer";
+    
+    @Override
+    public boolean needToComputeFrames() {
+        return false;
+    }
+    
+    @Override
+    public boolean isTransformationNeeded(String transformedName) {
+        return !ThaumicAugmentationCore.getConfig().getBoolean("DisableWardFocus", "gameplay.ward", false, "") &&
+                transformedName.equals(CLASS);
+    }
+    
+    @Override
+    public boolean isAllowedToFail() {
+        return false;
+    }
+    
+    @Override
+    public boolean transform(ClassNode classNode, String name, String transformedName) {
+        try {
+            MethodNode tick = TransformUtil.findMethod(classNode, TransformUtil.remapMethodName("net/minecraft/world/WorldServer", "func_72955_a", Type.BOOLEAN_TYPE, Type.BOOLEAN_TYPE),
+                    "(Z)Z");
+            String updateTick = TransformUtil.remapMethodName("net/minecraft/block/Block", "func_180650_b", Type.VOID_TYPE,
+                    Type.getType("Lnet/minecraft/world/World;"), Type.getType("Lnet/minecraft/util/math/BlockPos;"), Type.getType("Lnet/minecraft/block/state/IBlockState;"), Type.getType("Ljava/util/Random;"));
+            boolean found = false;
+            int ret = 0;
+            while ((ret = TransformUtil.findFirstInstanceOfMethodCall(tick, ret, updateTick,
+                    "(Lnet/minecraft/world/World;Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/block/state/IBlockState;Ljava/util/Random;)V",
+                    "net/minecraft/block/Block")) != -1) {
+                
+                // the hook takes the exact same stack as the original call, so it can just be swapped in
+                tick.instructions.set(tick.instructions.get(ret), new MethodInsnNode(Opcodes.INVOKESTATIC,
+                        TransformUtil.HOOKS_COMMON,
+                        "tickBlockIfNotWarded",
+                        "(Lnet/minecraft/block/Block;Lnet/minecraft/world/World;Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/block/state/IBlockState;Ljava/util/Random;)V",
+                        false
+                ));
+                ++ret;
+                found = true;
+            }
+            
+            if (!found)
+                throw new TransformerException("Could not locate required instructions");
+            
+            return true;
+        }
+        catch (Throwable anything) {
+            error = new RuntimeException(anything);
+            return false;
+        }
+    }
+    
+}
@@ -65,6 +65,7 @@ import net.minecraft.util.SoundCategory;
 import net.minecraft.util.SoundEvent;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.BlockPos.MutableBlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.IBlockAccess;
@@ -215,6 +216,7 @@ import thecodex6824.thaumicaugmentation.common.network.PacketImpulseBeam;
 import thecodex6824.thaumicaugmentation.common.network.PacketImpulseBurst;
 import thecodex6824.thaumicaugmentation.common.network.PacketImpulseRailgunProjectile;
 import thecodex6824.thaumicaugmentation.common.network.PacketLivingEquipmentChange;
+import thecodex6824.thaumicaugmentation.common.network.PacketPartialWardSync;
 import thecodex6824.thaumicaugmentation.common.network.PacketParticleEffect;
 import thecodex6824.thaumicaugmentation.common.network.PacketRecoil;
 import thecodex6824.thaumicaugmentation.common.network.PacketRiftJarInstability;
@@ -281,6 +283,7 @@ public class ClientProxy extends ServerProxy {
         handlers.put(PacketRecoil.class, (message, ctx) -> handleRecoilPacket((PacketRecoil) message, ctx));
         handlers.put(PacketTerraformerWork.class, (message, ctx) -> handleTerraformerWorkPacket((PacketTerraformerWork) message, ctx));
         handlers.put(PacketEssentiaUpdate.class, (message, ctx) -> handleEssentiaUpdatePacket((PacketEssentiaUpdate) message, ctx));
+        handlers.put(PacketPartialWardSync.class, (message, ctx) -> handlePartialWardSyncPacket((PacketPartialWardSync) message, ctx));
     
         reloadDispatcher = new ResourceReloadDispatcher();
     }
@@ -748,6 +751,22 @@ public class ClientProxy extends ServerProxy {
         }
     }
     
+    protected void handlePartialWardSyncPacket(PacketPartialWardSync message, MessageContext context) {
+        World world = Minecraft.getMinecraft().world;
+        if (world.isBlockLoaded(new BlockPos(message.getChunkX() << 4, 0, message.getChunkZ() << 4))) {
+            IWardStorage s = world.getChunk(message.getChunkX(), message.getChunkZ()).getCapability(CapabilityWardStorage.WARD_STORAGE, null);
+            if (s instanceof IWardStorageClient) {
+                IWardStorageClient storage = (IWardStorageClient) s;
+                for (int i = 0; i < message.getNumRuns(); ++i) {
+                    ClientWardStorageValue value = ClientWardStorageValue.fromID(message.getRunValue(i));
+                    int x = message.getRunX(i), z = message.getRunZ(i), startY = message.getRunStartY(i);
+                    for (int y = startY; y < startY + message.getRunLength(i); ++y)
+                        storage.setWard(new BlockPos(x, y, z), value);
+                }
+            }
+        }
+    }
+    
     protected void handleFractureLocatorUpdatePacket(PacketFractureLocatorUpdate message, MessageContext context) {
         EntityPlayerSP player = Minecraft.getMinecraft().player;
         for (int i = 0; i < player.inventory.getSizeInventory(); ++i) {
@@ -775,8 +794,10 @@ public class ClientProxy extends ServerProxy {
             TileEntity tile = world.getTileEntity(pos);
             if (tile != null) {
                 IImpetusNode node = tile.getCapability(CapabilityImpetusNode.IMPETUS_NODE, null);
-                if (node != null)
+                if (node != null) {
                     node.readSyncNBT(tag);
+                    ImpetusRenderingManager.markNodesChanged();
+                }
             }
         }
     }
@@ -807,6 +828,7 @@ public class ClientProxy extends ServerProxy {
                                         node.addInput(destNode);
                                 }
                                 
+                                ImpetusRenderingManager.markNodesChanged();
                                 return;
                             }
                         }
@@ -843,7 +865,19 @@ public class ClientProxy extends ServerProxy {
     }
     
     protected void handleBiomeUpdatePacket(PacketBiomeUpdate message, MessageContext context) {
-        BiomeUtil.setBiome(Minecraft.getMinecraft().world, new BlockPos(message.getX(), 64, message.getZ()), Biome.getBiome(message.getBiome()));
+        World world = Minecraft.getMinecraft().world;
+        int baseX = message.getChunkX() << 4;
+        int baseZ = message.getChunkZ() << 4;
+        MutableBlockPos pos = new MutableBlockPos();
+        for (int i = 0; i < 256; ++i) {
+            if (message.isColumnChanged(i)) {
+                Biome biome = Biome.getBiome(message.getBiome(i));
+                if (biome != null)
+                    BiomeUtil.writeBiome(world, pos.setPos(baseX + (i & 15), 64, baseZ + (i >>> 4)), biome);
+            }
+        }
+        
+        world.markBlockRangeForRenderUpdate(baseX, 0, baseZ, baseX + 15, 255, baseZ + 15);
     }
     
     protected void handleFXShieldPacket(PacketFXShield message, MessageContext context) {
@@ -22,6 +22,7 @@ package thecodex6824.thaumicaugmentation.api.ward.storage;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
 
 import java.util.HashMap;
 import java.util.HashSet;
@@ -42,6 +43,7 @@ import thecodex6824.thaumicaugmentation.api.ward.storage.WardStorageServer.Stora
 import thecodex6824.thaumicaugmentation.api.ward.storage.WardStorageServer.StorageManagersServer.StorageManagerByte;
 import thecodex6824.thaumicaugmentation.api.ward.storage.WardStorageServer.StorageManagersServer.StorageManagerNull;
 import thecodex6824.thaumicaugmentation.api.ward.storage.WardStorageServer.StorageManagersServer.StorageManagerShort;
+import thecodex6824.thaumicaugmentation.api.ward.storage.WardStorageServer.StorageManagersServer.StorageManagerSparse;
 
 public class TestWardStorage {
     
@@ -125,6 +127,73 @@ public class TestWardStorage {
         sharedTest(new StorageManagerShort());
     }
     
+    @Test
+    public void testSparse() {
+        sharedTest(new StorageManagerSparse());
+    }
+    
+    @Test
+    public void testSparseConversion() {
+        WardStorageServer storage = new WardStorageServer();
+        
+        UUID[] players = new UUID[4];
+        for (int i = 0; i < players.length; ++i)
+            players[i] = fastGenerateUUID();
+        
+        HashMap<BlockPos, UUID> data = new HashMap<>();
+        Random rand = new Random();
+        while (data.size() < StorageManagerSparse.MAX_ENTRIES / 4)
+            data.put(new BlockPos(rand.nextInt(16), rand.nextInt(256), rand.nextInt(16)), players[rand.nextInt(players.length)]);
+        
+        for (Map.Entry<BlockPos, UUID> entry : data.entrySet())
+            storage.setWard(entry.getKey(), entry.getValue());
+        
+        assertEquals(StorageManagerSparse.class, storage.manager.getClass());
+        
+        NBTTagCompound serialized = storage.serializeNBT();
+        storage.deserializeNBT(serialized);
+        
+        assertEquals(StorageManagerSparse.class, storage.manager.getClass());
+        for (Map.Entry<BlockPos, UUID> entry : data.entrySet())
+            assertEquals("UUID compare fail @ " + entry.getKey(), entry.getValue(), storage.getWard(entry.getKey()));
+        
+        while (data.size() < StorageManagerSparse.MAX_ENTRIES + 1) {
+            BlockPos pos = new BlockPos(rand.nextInt(16), rand.nextInt(256), rand.nextInt(16));
+            if (!data.containsKey(pos)) {
+                data.put(pos, players[rand.nextInt(players.length)]);
+                storage.setWard(pos, data.get(pos));
+            }
+        }
+        
+        assertEquals(StorageManager4Bits.class, storage.manager.getClass());
+        for (Map.Entry<BlockPos, UUID> entry : data.entrySet())
+            assertEquals("UUID compare fail @ " + entry.getKey(), entry.getValue(), storage.getWard(entry.getKey()));
+        
+        for (Map.Entry<BlockPos, UUID> entry : data.entrySet()) {
+            if (rand.nextInt(4) != 0)
+                storage.clearWard(entry.getKey());
+        }
+        
+        serialized = storage.serializeNBT();
+        storage.deserializeNBT(serialized);
+        assertEquals(StorageManagerSparse.class, storage.manager.getClass());
+    }
+    
+    @Test
+    public void testSparseInvalidOwnerCount() {
+        StorageManagerSparse manager = new StorageManagerSparse();
+        NBTTagCompound serialized = manager.serialize();
+        serialized.setUniqueId(Integer.toString(manager.getMaxAllowedOwners()), fastGenerateUUID());
+        serialized.setInteger("o", manager.getMaxAllowedOwners() + 1);
+        try {
+            new StorageManagerSparse().deserialize(serialized);
+            fail("Owner count past the maximum was accepted");
+        }
+        catch (RuntimeException ex) {
+            assertEquals("Invalid ward data", ex.getMessage());
+        }
+    }
+    
     @Test
     public void testSizeIncrease() {
         WardStorageServer storage = new WardStorageServer(new StorageManager2Bits());
@@ -260,7 +329,9 @@ public class TestWardStorage {
             }
         }
         
-        assertEquals((long) ((StorageManager1Bit) storage.manager).count, count);
+        // a single ward is put back into sparse storage on save
+        assertEquals(StorageManagerSparse.class, storage.manager.getClass());
+        assertEquals((long) storage.manager.getNumWards(), count);
         
         for (int x = 0; x < 16; ++x) {
             for (int z = 0; z < 16; ++z) {
@@ -727,4 +798,54 @@ public class TestWardStorage {
             assertFalse(storage.isWardOwner(id));
     }
     
+    private void clientViewTest(IWardStorageManagerServer manager) {
+        WardStorageServer storage = new WardStorageServer(manager);
+        
+        UUID[] players = new UUID[Math.min(manager.getMaxAllowedOwners(), 20) + 1];
+        players[0] = IWardStorageServer.NIL_UUID;
+        for (int i = 1; i < players.length; ++i)
+            players[i] = fastGenerateUUID();
+        
+        Random rand = new Random();
+        MutableBlockPos pos = new MutableBlockPos(0, 0, 0);
+        for (int x = 0; x < 16; ++x) {
+            for (int z = 0; z < 16; ++z) {
+                pos.setPos(x, 0, z);
+                for (int y = 0; y < 256; ++y) {
+                    pos.setY(y);
+                    UUID owner = players[rand.nextInt(players.length)];
+                    if (!owner.equals(IWardStorageServer.NIL_UUID))
+                        storage.setWard(pos, owner);
+                }
+            }
+        }
+        
+        for (UUID viewer : new UUID[] {players[players.length - 1], fastGenerateUUID()}) {
+            byte[] view = new byte[16 * 16 * 256 / 4];
+            storage.manager.exportClientView(viewer, view);
+            for (int x = 0; x < 16; ++x) {
+                for (int z = 0; z < 16; ++z) {
+                    pos.setPos(x, 0, z);
+                    for (int y = 0; y < 256; ++y) {
+                        pos.setY(y);
+                        UUID owner = storage.getWard(pos);
+                        int expected = owner.equals(IWardStorageServer.NIL_UUID) ? 0 : owner.equals(viewer) ? 1 : 2;
+                        int index = x + y * 16 + z * 16 * 256;
+                        assertEquals("Client view fail @ " + pos, expected, (view[index / 4] >>> (index % 4 * 2)) & 3);
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testClientView() {
+        clientViewTest(new StorageManager1Bit());
+        clientViewTest(new StorageManager2Bits());
+        clientViewTest(new StorageManager4Bits());
+        clientViewTest(new StorageManagerByte());
+        clientViewTest(new StorageManagerShort());
+        clientViewTest(new StorageManagerSparse());
+    }
+    
 }
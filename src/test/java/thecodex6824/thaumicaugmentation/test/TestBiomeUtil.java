@@ -0,0 +1,105 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.minecraft.util.math.MathHelper;
+import thecodex6824.thaumicaugmentation.common.world.biome.BiomeUtil;
+
+public class TestBiomeUtil {
+    
+    private static Random copyRand(Random rand) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(rand);
+        }
+        
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return (Random) in.readObject();
+        }
+    }
+    
+    // the original search, which copied the Random by serializing it
+    private static Random referenceSearch(long worldSeed, int x, int z, float life, int target) throws IOException, ClassNotFoundException {
+        Random chunkRandom = new Random(worldSeed);
+        long xSeed = chunkRandom.nextLong() >> 2 + 1;
+        long zSeed = chunkRandom.nextLong() >> 2 + 1;
+        chunkRandom.setSeed((xSeed * (x >> 16) + zSeed * (z >> 16) ^ worldSeed));
+        for (int i = 0; i < 8; ++i)
+            chunkRandom.nextInt();
+        
+        Random copy = copyRand(chunkRandom);
+        for (int i = 0; i < BiomeUtil.AURA_SEARCH_LIMIT; ++i) {
+            double g = chunkRandom.nextGaussian();
+            if (MathHelper.clamp((short) ((float) (1.0 + g * 0.10000000149011612) * life * 500.0F), 0, 500) == target)
+                break;
+            else {
+                chunkRandom = copy;
+                chunkRandom.nextBoolean();
+                copy = copyRand(chunkRandom);
+            }
+        }
+        
+        return copy;
+    }
+    
+    private static Random search(long worldSeed, int x, int z, float life, int target) {
+        long start = BiomeUtil.getAuraSearchStart(worldSeed, x, z);
+        long state = BiomeUtil.findAuraState(start, life, target);
+        if (state == -1) {
+            state = start;
+            for (int i = 0; i < BiomeUtil.AURA_SEARCH_LIMIT; ++i)
+                state = (state * 0x5DEECE66DL + 0xBL) & ((1L << 48) - 1);
+        }
+        
+        return BiomeUtil.createRandFromState(state);
+    }
+    
+    @Test
+    public void testAuraSearchMatchesReference() throws IOException, ClassNotFoundException {
+        Random params = new Random(1337);
+        for (int i = 0; i < 10; ++i) {
+            long seed = params.nextLong();
+            int x = params.nextInt(2000000) - 1000000;
+            int z = params.nextInt(2000000) - 1000000;
+            float life = 0.2F + params.nextFloat();
+            // 499 is out of reach for some of these, which checks the state left after a failed search
+            int target = i % 3 == 0 ? 499 : params.nextInt(500);
+            Random expected = referenceSearch(seed, x, z, life, target);
+            Random actual = search(seed, x, z, life, target);
+            for (int j = 0; j < 16; ++j) {
+                assertEquals(Double.doubleToLongBits(expected.nextGaussian()), Double.doubleToLongBits(actual.nextGaussian()));
+                assertEquals(expected.nextInt(), actual.nextInt());
+            }
+        }
+    }
+    
+}
@@ -23,9 +23,13 @@ package thecodex6824.thaumicaugmentation.test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.Deque;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.Test;
@@ -97,6 +101,33 @@ public class TestImpetusGraph {
         assertTrue(node1.getGraph().size() == 3);
     }
     
+    @Test
+    public void testSplit() {
+        ImpetusNode node1 = new ImpetusNode(2, 2, new DimensionalBlockPos(0, 0, 0, 0));
+        ImpetusNode node2 = new ImpetusNode(2, 2, new DimensionalBlockPos(0, 0, 1, 0));
+        ImpetusNode node3 = new ImpetusNode(2, 2, new DimensionalBlockPos(0, 0, 2, 0));
+        ImpetusNode node4 = new ImpetusNode(2, 2, new DimensionalBlockPos(0, 0, 3, 0));
+        ImpetusNode node5 = new ImpetusNode(2, 2, new DimensionalBlockPos(0, 0, 4, 0));
+        
+        // node4 is part of a loop, so removing it should not split the graph
+        node2.addInput(node1);
+        node3.addInput(node2);
+        node4.addInput(node3);
+        node4.addOutput(node5);
+        node5.addOutput(node3);
+        assertEquals(5, node1.getGraph().size());
+        
+        node4.unload();
+        assertEquals(4, node1.getGraph().size());
+        assertSame(node1.getGraph(), node5.getGraph());
+        
+        node2.unload();
+        assertEquals(1, node1.getGraph().size());
+        assertEquals(2, node3.getGraph().size());
+        assertSame(node3.getGraph(), node5.getGraph());
+        assertNotSame(node1.getGraph(), node3.getGraph());
+    }
+    
     @Test
     public void testFindProviders() {
         BufferedImpetusProvider p = new BufferedImpetusProvider(2, 2, new DimensionalBlockPos(0, 0, 0, 0), new ImpetusStorage(1000));
@@ -112,6 +143,31 @@ public class TestImpetusGraph {
         assertEquals(1, providers.size());
     }
     
+    @Test
+    public void testProviderPathCache() {
+        BufferedImpetusProvider p = new BufferedImpetusProvider(2, 2, new DimensionalBlockPos(0, 0, 0, 0), new ImpetusStorage(1000));
+        ImpetusNode n1 = new ImpetusNode(2, 2, new DimensionalBlockPos(0, 0, 1, 0));
+        ImpetusNode n2 = new ImpetusNode(2, 2, new DimensionalBlockPos(0, 1, 1, 0));
+        
+        n1.addInput(p);
+        n2.addInput(n1);
+        
+        Map<IImpetusProvider, Deque<IImpetusNode>> paths = n2.getGraph().findDirectProviderPaths(n2);
+        assertEquals(1, paths.size());
+        assertEquals(3, paths.get(p).size());
+        assertSame(paths, n2.getGraph().findDirectProviderPaths(n2));
+        try {
+            paths.get(p).poll();
+            fail("Cached provider path was modified");
+        }
+        catch (UnsupportedOperationException ex) {}
+        
+        assertEquals(3, paths.get(p).size());
+        
+        n2.removeInput(n1);
+        assertTrue(n2.getGraph().findDirectProviderPaths(n2).isEmpty());
+    }
+    
     @Test
     public void testPath() {
         ImpetusNode node1 = new ImpetusNode(2, 2, new DimensionalBlockPos(0, 0, 0, 0));
@@ -0,0 +1,63 @@
+/**
+ *  Thaumic Augmentation
+ *  Copyright (c) 2019 TheCodex6824.
+ *
+ *  This file is part of Thaumic Augmentation.
+ *
+ *  Thaumic Augmentation is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU Lesser General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Thaumic Augmentation is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License
+ *  along with Thaumic Augmentation.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package thecodex6824.thaumicaugmentation.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
+import thecodex6824.thaumicaugmentation.common.event.ScheduledTaskHandler;
+import thecodex6824.thaumicaugmentation.common.util.ISchedulableTask;
+
+public class TestScheduledTaskHandler {
+    
+    @Test
+    public void testTaskOrder() {
+        ArrayList<Integer> ran = new ArrayList<>();
+        TickEvent.ServerTickEvent event = new TickEvent.ServerTickEvent(Phase.END);
+        ScheduledTaskHandler.registerTask(() -> ran.add(3), 2);
+        ScheduledTaskHandler.registerTask(() -> ran.add(1), 0);
+        ScheduledTaskHandler.registerTask(() -> ran.add(2), 0);
+        ISchedulableTask replaced = () -> ran.add(4);
+        ScheduledTaskHandler.registerTask(replaced, 0);
+        ScheduledTaskHandler.registerTask(replaced, 3);
+        // tasks registered while running should wait for the next tick
+        ScheduledTaskHandler.registerTask(() -> ScheduledTaskHandler.registerTask(() -> ran.add(5), 0), 3);
+        
+        ScheduledTaskHandler.onServerTick(event);
+        assertEquals(ImmutableList.of(1, 2), ran);
+        ScheduledTaskHandler.onServerTick(event);
+        assertEquals(ImmutableList.of(1, 2), ran);
+        ScheduledTaskHandler.onServerTick(event);
+        assertEquals(ImmutableList.of(1, 2, 3), ran);
+        ScheduledTaskHandler.onServerTick(event);
+        assertEquals(ImmutableList.of(1, 2, 3, 4), ran);
+        ScheduledTaskHandler.onServerTick(event);
+        assertEquals(ImmutableList.of(1, 2, 3, 4, 5), ran);
+    }
+    
+}